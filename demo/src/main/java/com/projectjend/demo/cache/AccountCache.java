@@ -0,0 +1,84 @@
+package com.projectjend.demo.cache;
+
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.event.AccountChangedEvent;
+import com.projectjend.demo.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Near cache of account profiles by email and by id, so the lookups that
+ * nearly every write makes cost a map hit instead of a query. Entries are
+ * dropped when the account changes; a load that raced with such a change
+ * is not cached, so a stale profile can never outlive the update. A full
+ * cache simply starts over: active accounts refill it within a few requests.
+ */
+@Component
+public class AccountCache {
+
+    private final AccountRepository repository;
+    private final int maxEntries;
+    private final Map<String, AccountView> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, AccountView> byId = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; loads that started before it are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public AccountCache(AccountRepository repository,
+                        @Value("${accounts.cache.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public Optional<AccountView> byEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        AccountView cached = byEmail.get(email);
+        return cached != null ? Optional.of(cached) : load(() -> repository.findViewByEmail(email));
+    }
+
+    public Optional<AccountView> byId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        AccountView cached = byId.get(id);
+        return cached != null ? Optional.of(cached) : load(() -> repository.findViewById(id));
+    }
+
+    private Optional<AccountView> load(Supplier<Optional<AccountView>> query) {
+        long startedAt = generation.get();
+        Optional<AccountView> loaded = query.get();
+        loaded.ifPresent(view -> {
+            if (byId.size() >= maxEntries) {
+                byId.clear();
+                byEmail.clear();
+            }
+            byId.put(view.id(), view);
+            byEmail.put(view.email(), view);
+            if (generation.get() != startedAt) {
+                // An account changed while this one loaded: it may be the same one, so keep nothing
+                evict(view.id());
+            }
+        });
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        generation.incrementAndGet();
+        evict(event.accountId());
+    }
+
+    // Updates are rare, so a scan is fine; it also finds the entry under an email the account no longer has
+    private void evict(Long accountId) {
+        byId.remove(accountId);
+        byEmail.values().removeIf(view -> view.id().equals(accountId));
+    }
+}
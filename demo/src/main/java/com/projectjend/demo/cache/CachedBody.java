@@ -0,0 +1,18 @@
+package com.projectjend.demo.cache;
+
+// A response body encoded once: UTF-8 JSON, its gzip variant, and the catalog version it was built at
+public record CachedBody(
+    byte[] json,
+    byte[] gzip,
+    long version
+) {
+
+    public String etag(boolean gzipped) {
+        return etag(version, gzipped);
+    }
+
+    // Each encoding is a distinct representation, so it gets its own strong ETag
+    public static String etag(long version, boolean gzipped) {
+        return gzipped ? "\"catalog-" + version + "-gzip\"" : "\"catalog-" + version + "\"";
+    }
+}
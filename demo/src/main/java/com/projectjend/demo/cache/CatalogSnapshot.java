@@ -0,0 +1,31 @@
+package com.projectjend.demo.cache;
+
+import com.projectjend.demo.event.CatalogChangedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the in-process catalog. Every committed
+ * catalog write bumps it, and cached read models are tagged with the version
+ * they were built at, so the version doubles as a strong ETag.
+ */
+@Component
+public class CatalogSnapshot {
+
+    // Seeded from the clock so versions keep increasing across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long version() {
+        return version.get();
+    }
+
+    // Runs before the response cache rebuilds so rebuilt bodies carry the new version
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,200 @@
+package com.projectjend.demo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already-encoded JSON (plus gzip) bodies for the hottest public reads.
+ * A cached hit costs a map lookup and a byte copy to the socket. When the
+ * catalog changes, entries that were read since their last build are
+ * re-encoded on a background thread while readers keep getting the previous
+ * body; cold entries are simply dropped.
+ * When the cache is full, the least recently read eighth of it is evicted
+ * so new keys (other cursors and limits) never lock hot pages out.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final int MAX_ENTRIES = 1024;
+    // Entries not read within this many of the latest reads are evicted when the cache is full
+    private static final int KEEP_RECENT = MAX_ENTRIES - MAX_ENTRIES / 8;
+    private static final String REVIEWS = "reviews|";
+
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshot catalogSnapshot;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Logical clock of reads, for recency
+    private final AtomicLong reads = new AtomicLong();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "response-cache-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ResponseBodyCache(ObjectMapper objectMapper, CatalogSnapshot catalogSnapshot) {
+        this.objectMapper = objectMapper;
+        this.catalogSnapshot = catalogSnapshot;
+    }
+
+    public static String catalogPageKey(Object filter, String cursor, int limit) {
+        return "page|" + filter + "|" + cursor + "|" + limit;
+    }
+
+    public static String reviewsKey(Long serviceId, String cursor, int limit) {
+        return reviewsPrefix(serviceId) + cursor + "|" + limit;
+    }
+
+    private static String reviewsPrefix(Long serviceId) {
+        return REVIEWS + serviceId + "|";
+    }
+
+    private static Long reviewsServiceId(String key) {
+        return Long.valueOf(key.substring(REVIEWS.length(), key.indexOf('|', REVIEWS.length())));
+    }
+
+    public CachedBody get(String key, Supplier<?> loader) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= MAX_ENTRIES) {
+                evictLeastRecent();
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry(loader));
+        }
+        entry.hot = true;
+        entry.lastRead = reads.incrementAndGet();
+
+        CachedBody body = entry.body;
+        if (body == null) {
+            // First request for this key builds it inline; concurrent callers wait for it
+            synchronized (entry) {
+                if (entry.body == null) {
+                    try {
+                        entry.body = build(loader);
+                    } catch (RuntimeException e) {
+                        entries.remove(key, entry);
+                        throw e;
+                    }
+                }
+                body = entry.body;
+            }
+        }
+        return body;
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Every catalog page may include the services; only their own review pages can have changed
+        Set<Long> changed = new HashSet<>(event.serviceIds());
+        entries.forEach((key, entry) -> {
+            if (key.startsWith("page|") || (key.startsWith(REVIEWS) && changed.contains(reviewsServiceId(key)))) {
+                refresh(key, entry);
+            }
+        });
+    }
+
+    // Every entry has a distinct read tick, so at least MAX_ENTRIES / 8 fall outside the recent window
+    private synchronized void evictLeastRecent() {
+        if (entries.size() < MAX_ENTRIES) {
+            return;
+        }
+        long cutoff = reads.get() - KEEP_RECENT;
+        entries.values().removeIf(entry -> entry.lastRead <= cutoff);
+    }
+
+    private void refresh(String key, Entry entry) {
+        if (entry.rebuildQueued.get()) {
+            // The queued rebuild has not read anything yet, so it will see this change too
+            return;
+        }
+        if (!entry.hot && !entry.rebuilding) {
+            entries.remove(key, entry);
+            return;
+        }
+        // A running rebuild may have read the data before this change: queue another one
+        entry.hot = false;
+        if (entry.rebuildQueued.compareAndSet(false, true)) {
+            try {
+                rebuilder.execute(() -> rebuild(key, entry));
+            } catch (RejectedExecutionException e) {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    // Readers keep getting the previous body until the new one is swapped in
+    private void rebuild(String key, Entry entry) {
+        entry.rebuilding = true;
+        entry.rebuildQueued.set(false);
+        try {
+            CachedBody body = build(entry.loader);
+            synchronized (entry) {
+                entry.body = body;
+            }
+        } catch (RuntimeException e) {
+            // Serve nothing stale past a failed rebuild: the next read builds the entry inline
+            entries.remove(key, entry);
+        } finally {
+            entry.rebuilding = false;
+        }
+    }
+
+    private CachedBody build(Supplier<?> loader) {
+        // Capture the version first so a concurrent write can only make the tag older, never newer
+        long version = catalogSnapshot.version();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            return new CachedBody(json, gzip(json), version);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private static final class Entry {
+        final Supplier<?> loader;
+        final AtomicBoolean rebuildQueued = new AtomicBoolean();
+        volatile CachedBody body;
+        volatile boolean hot;
+        volatile boolean rebuilding;
+        volatile long lastRead;
+
+        Entry(Supplier<?> loader) {
+            this.loader = loader;
+        }
+    }
+}
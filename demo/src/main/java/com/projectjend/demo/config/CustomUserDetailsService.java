@@ -23,7 +23,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
     return User.withUsername(acc.getEmail())
         .password(acc.getPassword())
-        .roles("USER")
+        .roles(acc.getRole() != null ? acc.getRole() : "USER")
         .build();
   }
 }
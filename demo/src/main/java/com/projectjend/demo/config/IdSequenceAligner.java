@@ -0,0 +1,63 @@
+package com.projectjend.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves each entity's id sequence past the ids already in its table. Tables
+ * created when ids came from IDENTITY columns get a fresh sequence starting
+ * at 1, which would otherwise hand out ids that are taken. Runs before any
+ * startup work that inserts rows, and only ever moves a sequence forward.
+ */
+@Component
+public class IdSequenceAligner implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbc;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbc) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        JdbcServices jdbcServices = sessionFactory.getJdbcServices();
+        Dialect dialect = jdbcServices.getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (!(persister.getGenerator() instanceof SequenceStyleGenerator generator)
+                || !(persister instanceof AbstractEntityPersister entity)) {
+                return;
+            }
+            DatabaseStructure structure = generator.getDatabaseStructure();
+            // Rendered the way Hibernate itself names it in SQL (default schema, quoting)
+            String sequence = sessionFactory.getSqlStringGenerationContext().format(structure.getPhysicalName());
+            int increment = structure.getIncrementSize();
+
+            Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(" + entity.getIdentifierColumnNames()[0]
+                + "), 0) FROM " + entity.getTableName(), Long.class);
+            if (maxId == 0) {
+                return;
+            }
+            // The pooled optimizer hands out the ids just below each value it draws
+            Long next = jdbc.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+            if (next < maxId) {
+                long restart = maxId + increment + 1;
+                jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+                log.info("Moved sequence {} past existing id {} to {}", sequence, maxId, restart);
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.projectjend.demo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters not covered by Actuator's auto-configuration. HTTP endpoints,
+ * Spring Data repositories and the Hikari pool are instrumented by Spring
+ * Boot itself; this adds {@code @Timed} support for the service classes and
+ * the Hibernate statistics gauges (hibernate.generate_statistics=true).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return registry -> new HibernateMetrics(sessionFactory, "entityManagerFactory", Tags.empty()).bindTo(registry);
+    }
+}
@@ -1,6 +1,9 @@
 package com.projectjend.demo.config;
 
+import com.projectjend.demo.security.AdmissionControlledPasswordEncoder;
 import com.projectjend.demo.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -43,8 +46,15 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/services").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/services/*/reviews").permitAll() // ALLOW PUBLIC ACCESS TO REVIEWS
+                .requestMatchers(HttpMethod.GET, "/api/services/*").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/services/nearby").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/services/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/services/facets").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/services/suggest").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/services/leaderboards/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
                 
                 // Protected endpoints - authentication required
                 .requestMatchers(HttpMethod.POST, "/api/services").authenticated()
@@ -54,6 +64,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/services/*/review").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/services/*/has-reviewed").authenticated()
                 .requestMatchers("/api/accounts/**").authenticated()
+                // Bulk import writes under arbitrary reviewer emails: importers and admins only
+                .requestMatchers("/api/import/**").hasAnyRole("ADMIN", "IMPORTER")
                 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -76,9 +88,14 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt runs on its own bounded pool; auth.hashing.threads=0 means half the available cores
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${auth.hashing.threads:0}") int threads,
+                                           @Value("${auth.hashing.queue-capacity:32}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new AdmissionControlledPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity,
+            meterRegistry);
     }
 
     @Bean
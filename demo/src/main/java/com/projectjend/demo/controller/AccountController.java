@@ -1,53 +1,93 @@
 package com.projectjend.demo.controller;
 
 import com.projectjend.demo.dto.AccountDTO;
+import com.projectjend.demo.dto.AccountView;
 import com.projectjend.demo.dto.PasswordUpdateDTO;
-import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.security.AuthThrottle;
 import com.projectjend.demo.service.AccountService;
+import com.projectjend.demo.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
   private final AccountService accountService;
+  private final ReviewService reviewService;
+  private final AuthThrottle authThrottle;
 
-  public AccountController(AccountService accountService) {
+  public AccountController(AccountService accountService, ReviewService reviewService, AuthThrottle authThrottle) {
     this.accountService = accountService;
+    this.reviewService = reviewService;
+    this.authThrottle = authThrottle;
   }
 
-  // Register (public)
+  // Register (public), under the same throttling and hashing limits as /api/auth/register
   @PostMapping
-  public ResponseEntity<Account> createAccount(@Valid @RequestBody AccountDTO accountDTO) {
-    return ResponseEntity.ok(accountService.createAccount(accountDTO));
+  public ResponseEntity<?> createAccount(@Valid @RequestBody AccountDTO accountDTO, HttpServletRequest request) {
+    if (!authThrottle.tryAcquire(request.getRemoteAddr(), accountDTO.email())) {
+      return AuthController.tooManyAttempts();
+    }
+    try {
+      return ResponseEntity.ok(accountService.createAccount(accountDTO));
+    } catch (RejectedExecutionException e) {
+      return AuthController.hashingBusy();
+    }
   }
 
   // Update account (auth required)
   @PutMapping("/{id}")
-  public ResponseEntity<Account> updateAccount(
+  public ResponseEntity<?> updateAccount(
       @PathVariable Long id,
       @Valid @RequestBody AccountDTO accountDTO) {
-    return ResponseEntity.ok(accountService.updateAccount(id, accountDTO));
+    try {
+      return ResponseEntity.ok(accountService.updateAccount(id, accountDTO));
+    } catch (RejectedExecutionException e) {
+      return AuthController.hashingBusy();
+    }
   }
 
   // Change password (auth required)
   @PutMapping("/{id}/password")
-  public ResponseEntity<Void> updatePassword(
+  public ResponseEntity<?> updatePassword(
       @PathVariable Long id,
       @Valid @RequestBody PasswordUpdateDTO passwordUpdateDTO) {
-    accountService.updatePassword(id, passwordUpdateDTO);
-    return ResponseEntity.ok().build();
+    try {
+      accountService.updatePassword(id, passwordUpdateDTO);
+      return ResponseEntity.ok().build();
+    } catch (RejectedExecutionException e) {
+      return AuthController.hashingBusy();
+    }
+  }
+
+  // The caller's own reviews newest first, one keyset page at a time (auth required)
+  @GetMapping("/me/reviews")
+  public ResponseEntity<?> myReviews(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int limit,
+      Authentication auth) {
+    try {
+      return ResponseEntity.ok(reviewService.getReviewsByClientEmail(auth.getName(), cursor, limit));
+    } catch (IllegalArgumentException e) {
+      Map<String, String> error = new HashMap<>();
+      error.put("error", e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
   }
 
   // Verify current user / profile (auth required)
   @GetMapping("/me")
-  public ResponseEntity<Account> me(Authentication auth) {
-    Account acc = accountService.getByEmail(auth.getName());
-    // Hide password in response
-    acc.setPassword("********");
-    return ResponseEntity.ok(acc);
+  public ResponseEntity<AccountView> me(Authentication auth) {
+    // The cached view never carries the password hash
+    return ResponseEntity.ok(accountService.getView(auth.getName()));
   }
 }
@@ -2,9 +2,19 @@ package com.projectjend.demo.controller;
 
 import com.projectjend.demo.dto.*;
 import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.reset.ResetCodeStore;
+import com.projectjend.demo.security.AuthThrottle;
+import com.projectjend.demo.security.JwtPrincipal;
 import com.projectjend.demo.security.JwtUtil;
+import com.projectjend.demo.security.TokenRevocations;
 import com.projectjend.demo.service.AccountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,59 +24,74 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AccountService accountService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final TokenRevocations tokenRevocations;
+    private final AuthThrottle authThrottle;
     private final PasswordEncoder passwordEncoder;
-    
-    // Temporary storage for reset codes (in production, use database or Redis)
-    private final Map<String, ResetCodeInfo> resetCodes = new ConcurrentHashMap<>();
+    private final Counter registrations;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
+    private final ResetCodeStore resetCodes;
+    private final SecureRandom random = new SecureRandom();
 
     public AuthController(AccountService accountService, 
                          AuthenticationManager authenticationManager, 
                          JwtUtil jwtUtil,
-                         PasswordEncoder passwordEncoder) {
+                         TokenRevocations tokenRevocations,
+                         AuthThrottle authThrottle,
+                         PasswordEncoder passwordEncoder,
+                         ResetCodeStore resetCodes,
+                         MeterRegistry meterRegistry) {
         this.accountService = accountService;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.tokenRevocations = tokenRevocations;
+        this.authThrottle = authThrottle;
         this.passwordEncoder = passwordEncoder;
+        this.resetCodes = resetCodes;
+        this.registrations = meterRegistry.counter("auth.registrations");
+        this.loginSuccesses = meterRegistry.counter("auth.logins", "outcome", "success");
+        this.loginFailures = meterRegistry.counter("auth.logins", "outcome", "failure");
     }
 
-    // Inner class for storing reset code info
-    private static class ResetCodeInfo {
-        String email;
-        String code;
-        long timestamp;
-        
-        ResetCodeInfo(String email, String code) {
-            this.email = email;
-            this.code = code;
-            this.timestamp = System.currentTimeMillis();
-        }
-        
-        boolean isExpired() {
-            // Expire after 1 hour
-            return System.currentTimeMillis() - timestamp > 3600000;
-        }
+    // Refused before any password hashing happens
+    static ResponseEntity<?> tooManyAttempts() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "محاولات كثيرة جدًا، يرجى المحاولة لاحقًا");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "60").body(error);
+    }
+
+    // The password hashing queue is full
+    static ResponseEntity<?> hashingBusy() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "الخادم مشغول، يرجى المحاولة بعد قليل");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody AccountDTO accountDTO) {
+    public ResponseEntity<?> register(@Valid @RequestBody AccountDTO accountDTO, HttpServletRequest request) {
+        if (!authThrottle.tryAcquire(request.getRemoteAddr(), accountDTO.email())) {
+            return tooManyAttempts();
+        }
         try {
             Account account = accountService.createAccount(accountDTO);
-            String token = jwtUtil.generateToken(account.getEmail());
+            String token = jwtUtil.generateToken(account.getId(), account.getEmail());
             
-            System.out.println("User registered: " + account.getEmail());
-            System.out.println("Token generated: " + token.substring(0, 20) + "...");
+            registrations.increment();
             
             AuthResponseDTO response = new AuthResponseDTO(
                 token,
@@ -80,9 +105,10 @@ public class AuthController {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         } catch (Exception e) {
-            System.err.println("Registration error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Registration failed", e);
             Map<String, String> error = new HashMap<>();
             error.put("error", "فشل التسجيل: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -91,11 +117,15 @@ public class AuthController {
 
     // Additional endpoint for client registration with all fields
     @PostMapping("/register/client")
-    public ResponseEntity<?> registerClient(@Valid @RequestBody AccountDTO accountDTO) {
+    public ResponseEntity<?> registerClient(@Valid @RequestBody AccountDTO accountDTO, HttpServletRequest request) {
+        if (!authThrottle.tryAcquire(request.getRemoteAddr(), accountDTO.email())) {
+            return tooManyAttempts();
+        }
         try {
             // Register with all client fields
             Account account = accountService.createAccount(accountDTO);
-            String token = jwtUtil.generateToken(account.getEmail());
+            String token = jwtUtil.generateToken(account.getId(), account.getEmail());
+            registrations.increment();
             
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
@@ -111,14 +141,17 @@ public class AuthController {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginDTO loginDTO) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        if (!authThrottle.tryAcquire(request.getRemoteAddr(), loginDTO.email())) {
+            return tooManyAttempts();
+        }
         try {
-            System.out.println("Login attempt for: " + loginDTO.email());
-            
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginDTO.email(),
@@ -126,48 +159,60 @@ public class AuthController {
                 )
             );
             
-            Account account = accountService.getByEmail(loginDTO.email());
-            String token = jwtUtil.generateToken(account.getEmail());
+            AccountView account = accountService.getView(loginDTO.email());
+            String token = jwtUtil.generateToken(account.id(), account.email(), account.role());
             
-            System.out.println("Login successful for: " + account.getEmail());
-            System.out.println("Token generated: " + token.substring(0, 20) + "...");
+            loginSuccesses.increment();
             
             AuthResponseDTO response = new AuthResponseDTO(
                 token,
-                account.getEmail(),
-                account.getName(),
-                account.getId()
+                account.email(),
+                account.name(),
+                account.id()
             );
             
             return ResponseEntity.ok(response);
         } catch (AuthenticationException e) {
-            System.err.println("Login failed for " + loginDTO.email() + ": " + e.getMessage());
+            loginFailures.increment();
             Map<String, String> error = new HashMap<>();
             error.put("error", "البريد الإلكتروني أو كلمة المرور غير صحيحة");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login failed", e);
             Map<String, String> error = new HashMap<>();
             error.put("error", "فشل تسجيل الدخول: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
 
+    // Revokes the token this request was made with; it stays revoked until it would have expired
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal principal)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "غير مصرح - يجب تسجيل الدخول");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        tokenRevocations.revoke(principal);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "تم تسجيل الخروج بنجاح");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordDTO dto) {
         try {
             // Verify the email exists
-            Account account = accountService.getByEmail(dto.email());
+            AccountView account = accountService.getView(dto.email());
             
             // Generate a 6-digit reset code
-            String resetCode = String.format("%06d", (int) (Math.random() * 1000000));
+            String resetCode = String.format("%06d", random.nextInt(1000000));
             
-            // Store the reset code with email
-            resetCodes.put(resetCode, new ResetCodeInfo(dto.email(), resetCode));
-            
-            // Clean up expired codes
-            resetCodes.entrySet().removeIf(entry -> entry.getValue().isExpired());
+            // Stored per email (replacing any earlier code); expiry is handled by the store
+            resetCodes.put(account.email(), resetCode);
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "تم إرسال رمز إعادة تعيين كلمة المرور إلى " + dto.email());
@@ -199,36 +244,40 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
             
-            // Verify reset code
-            ResetCodeInfo codeInfo = resetCodes.get(resetCode);
-            if (codeInfo == null || !codeInfo.email.equals(email) || codeInfo.isExpired()) {
+            // Verify and use up the reset code in one step, so it cannot be used twice
+            if (!resetCodes.consume(email, resetCode)) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "رمز إعادة التعيين غير صالح أو منتهي الصلاحية");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
             
-            // Update the password
-            Account account = accountService.getByEmail(email);
-            
-            // Direct password update for reset
-            accountService.updateAccount(account.getId(), new AccountDTO(
-                account.getName(),
-                account.getEmail(),
-                newPassword,
-                account.getPhone(),
-                account.getBirthDate(),
-                account.getGender(),
-                account.getDelegation(),
-                account.getSector()
-            ));
-            
-            // Remove used reset code
-            resetCodes.remove(resetCode);
+            try {
+                // Update the password
+                Account account = accountService.getByEmail(email);
+                
+                // Direct password update for reset
+                accountService.updateAccount(account.getId(), new AccountDTO(
+                    account.getName(),
+                    account.getEmail(),
+                    newPassword,
+                    account.getPhone(),
+                    account.getBirthDate(),
+                    account.getGender(),
+                    account.getDelegation(),
+                    account.getSector()
+                ));
+            } catch (RuntimeException e) {
+                // The password did not change: give the code back so the user can retry with it
+                resetCodes.put(email, resetCode);
+                throw e;
+            }
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "تم تغيير كلمة المرور بنجاح");
             return ResponseEntity.ok(response);
             
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "فشل تغيير كلمة المرور");
@@ -239,51 +288,42 @@ public class AuthController {
     @GetMapping("/me")
     public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
-            // Debug logging
-            System.out.println("Profile request received");
-            
             if (authentication == null) {
-                System.err.println("No authentication object");
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "غير مصرح - يجب تسجيل الدخول");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
             
             if (!authentication.isAuthenticated()) {
-                System.err.println("User not authenticated");
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "غير مصرح - يجب تسجيل الدخول");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
             }
             
             String email = authentication.getName();
-            System.out.println("Fetching profile for: " + email);
             
-            Account account = accountService.getByEmail(email);
+            AccountView account = accountService.getView(email);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("id", account.getId());
-            response.put("name", account.getName());
-            response.put("email", account.getEmail());
-            response.put("phone", account.getPhone());
-            response.put("birthDate", account.getBirthDate());
-            response.put("gender", account.getGender());
-            response.put("delegation", account.getDelegation());
-            response.put("sector", account.getSector());
-            response.put("createdAt", account.getCreatedAt());
-            response.put("updatedAt", account.getUpdatedAt());
+            response.put("id", account.id());
+            response.put("name", account.name());
+            response.put("email", account.email());
+            response.put("phone", account.phone());
+            response.put("birthDate", account.birthDate());
+            response.put("gender", account.gender());
+            response.put("delegation", account.delegation());
+            response.put("sector", account.sector());
+            response.put("createdAt", account.createdAt());
+            response.put("updatedAt", account.updatedAt());
             
-            System.out.println("Profile returned successfully for: " + email);
             return ResponseEntity.ok(response);
             
         } catch (IllegalArgumentException e) {
-            System.err.println("User not found: " + e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("error", "المستخدم غير موجود");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         } catch (Exception e) {
-            System.err.println("Profile error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Profile lookup failed", e);
             Map<String, String> error = new HashMap<>();
             error.put("error", "خطأ في الخادم: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -296,8 +336,7 @@ public class AuthController {
         String resetCode = request.get("resetCode");
         String email = request.get("email");
         
-        ResetCodeInfo codeInfo = resetCodes.get(resetCode);
-        if (codeInfo != null && codeInfo.email.equals(email) && !codeInfo.isExpired()) {
+        if (resetCodes.matches(email, resetCode)) {
             Map<String, String> response = new HashMap<>();
             response.put("message", "رمز إعادة التعيين صالح");
             response.put("valid", "true");
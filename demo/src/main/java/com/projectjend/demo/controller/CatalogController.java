@@ -0,0 +1,117 @@
+package com.projectjend.demo.controller;
+
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.FacetCounts;
+import com.projectjend.demo.dto.NearbyService;
+import com.projectjend.demo.dto.SearchHit;
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.ServiceFilter;
+import com.projectjend.demo.dto.Suggestion;
+import com.projectjend.demo.index.LeaderboardIndex;
+import com.projectjend.demo.service.CatalogSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Public catalog queries served from the in-memory indexes
+@RestController
+@RequestMapping("/api/services")
+@CrossOrigin(origins = "*")
+public class CatalogController {
+
+    private final CatalogSearchService catalogSearchService;
+
+    public CatalogController(CatalogSearchService catalogSearchService) {
+        this.catalogSearchService = catalogSearchService;
+    }
+
+    // Services around a point, nearest first, optionally within radiusKm
+    @GetMapping("/nearby")
+    public ResponseEntity<?> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String category) {
+        try {
+            ServiceFilter filter = ServiceFilter.of(delegation, sector, category, null);
+            List<NearbyService> services = catalogSearchService.nearby(lat, lon, radiusKm, limit, filter);
+            return ResponseEntity.ok(services);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Ranked full-text search over name, provider, institution and description
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<SearchHit> hits = catalogSearchService.search(q, limit);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    // Per-value service counts for every facet under the given filter combination
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCounts> facets(
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String institution) {
+        ServiceFilter filter = ServiceFilter.of(delegation, sector, category, institution);
+        return ResponseEntity.ok(catalogSearchService.facets(filter));
+    }
+
+    // Top completions for a search-box prefix; an unknown prefix simply yields an empty list
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(catalogSearchService.suggest(prefix, limit));
+    }
+
+    // Best rated services (rating, then number of reviews), optionally per delegation or category
+    @GetMapping("/leaderboards/top-rated")
+    public ResponseEntity<?> topRated(
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return leaderboard(LeaderboardIndex.Board.TOP_RATED, delegation, category, cursor, limit);
+    }
+
+    @GetMapping("/leaderboards/most-voted")
+    public ResponseEntity<?> mostVoted(
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return leaderboard(LeaderboardIndex.Board.MOST_VOTED, delegation, category, cursor, limit);
+    }
+
+    private ResponseEntity<?> leaderboard(LeaderboardIndex.Board board, String delegation, String category,
+                                          String cursor, int limit) {
+        try {
+            CursorPage<ServiceCard> page = catalogSearchService.leaderboard(board, delegation, category, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
@@ -0,0 +1,71 @@
+package com.projectjend.demo.controller;
+
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.ImportReport;
+import com.projectjend.demo.imports.BulkImporter;
+import com.projectjend.demo.service.AccountService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+// Bulk migration of partner data: the request body is streamed as NDJSON or CSV (header row first)
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+    private static final String CSV = "text/csv";
+
+    private final BulkImporter bulkImporter;
+    private final AccountService accountService;
+
+    public ImportController(BulkImporter bulkImporter, AccountService accountService) {
+        this.bulkImporter = bulkImporter;
+        this.accountService = accountService;
+    }
+
+    // Import services, proposed by the calling account
+    @PostMapping(value = "/services", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CSV})
+    public ResponseEntity<?> importServices(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            Authentication auth) {
+        try {
+            AccountView user = accountService.getView(auth.getName());
+            ImportReport report = bulkImporter.importServices(body, isCsv(contentType), user);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    // Import reviews; every row names its service (serviceProposalId) and reviewer (clientEmail)
+    @PostMapping(value = "/reviews", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CSV})
+    public ResponseEntity<?> importReviews(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        try {
+            ImportReport report = bulkImporter.importReviews(body, isCsv(contentType));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    private static boolean isCsv(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV));
+    }
+
+    private static ResponseEntity<?> badRequest(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
@@ -1,141 +1,205 @@
 package com.projectjend.demo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectjend.demo.cache.CachedBody;
+import com.projectjend.demo.cache.CatalogSnapshot;
+import com.projectjend.demo.cache.ResponseBodyCache;
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.ServiceFilter;
 import com.projectjend.demo.dto.ServiceProposalDTO;
 import com.projectjend.demo.dto.ReviewDTO;
-import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.dto.VoteCount;
 import com.projectjend.demo.entity.Review;
 import com.projectjend.demo.entity.ServiceProposal;
+import com.projectjend.demo.security.JwtPrincipal;
 import com.projectjend.demo.service.AccountService;
 import com.projectjend.demo.service.ReviewService;
 import com.projectjend.demo.service.ServiceProposalService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/services")
 @CrossOrigin(origins = "*")
 public class ServiceProposalController {
 
+    private static final Logger log = LoggerFactory.getLogger(ServiceProposalController.class);
+
     private final ServiceProposalService serviceProposalService;
     private final AccountService accountService;
     private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ResponseBodyCache responseBodyCache;
 
     public ServiceProposalController(ServiceProposalService serviceProposalService, 
                                     AccountService accountService,
-                                    ReviewService reviewService) {
+                                    ReviewService reviewService,
+                                    ObjectMapper objectMapper,
+                                    CatalogSnapshot catalogSnapshot,
+                                    ResponseBodyCache responseBodyCache) {
         this.serviceProposalService = serviceProposalService;
         this.accountService = accountService;
         this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
+        this.catalogSnapshot = catalogSnapshot;
+        this.responseBodyCache = responseBodyCache;
     }
 
-    // List all services (public)
+    // List services newest first, one keyset page at a time (public)
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAll() {
-        List<ServiceProposal> services = serviceProposalService.findAll();
-        
-        List<Map<String, Object>> response = services.stream()
-            .map(service -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", service.getId());
-                map.put("name", service.getName());
-                map.put("description", service.getDescription());
-                map.put("location", service.getLocation());
-                map.put("votes", service.getVotes());
-                map.put("status", "active");
-                
-                // Add new fields
-                map.put("ownerEmail", service.getOwnerEmail());
-                map.put("endDate", service.getEndDate());
-                map.put("reservationLink", service.getReservationLink());
-                map.put("delegation", service.getDelegation());
-                map.put("sector", service.getSector());
-                map.put("provider", service.getProvider());
-                map.put("institution", service.getInstitution());
-                map.put("category", service.getCategory());
-                map.put("averageRating", service.getAverageRating());
-                map.put("reviewCount", service.getReviewCount());
-                
-                if (service.getProposedBy() != null) {
-                    map.put("proposedById", service.getProposedBy().getId());
+    public ResponseEntity<?> getAll(
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String institution,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        // Unchanged catalog since the client's copy: answer 304 without touching the database
+        boolean gzip = acceptsGzip(request);
+        if (request.checkNotModified(CachedBody.etag(catalogSnapshot.version(), gzip))) {
+            return null;
+        }
+
+        try {
+            ServiceFilter filter = ServiceFilter.of(delegation, sector, category, institution);
+            CachedBody body = responseBodyCache.get(ResponseBodyCache.catalogPageKey(filter, cursor, limit),
+                () -> serviceProposalService.findPage(filter, cursor, limit));
+            return cachedResponse(body, gzip);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    // Stream every matching service as one JSON object per line (public)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(required = false) String delegation,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String institution) {
+        ServiceFilter filter = ServiceFilter.of(delegation, sector, category, institution);
+
+        StreamingResponseBody body = out -> serviceProposalService.exportAll(filter, service -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(service));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    // Serve a pre-encoded body; Spring answers If-None-Match against its ETag with 304
+    private ResponseEntity<byte[]> cachedResponse(CachedBody body, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(body.etag(gzip))
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    // gzip unless the client ruled it out with q=0; a "*" entry counts when gzip is not named
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
                 }
-                return map;
-            })
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0;
+        return q > 0;
     }
 
-    // GET REVIEWS FOR A SERVICE - THIS IS THE CRITICAL ENDPOINT
+    // One service with its rating histogram, first page of reviews and, for signed-in callers,
+    // whether they already reviewed it (public)
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int reviewLimit,
+            Authentication auth) {
+        try {
+            String viewer = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+            return ResponseEntity.ok(serviceProposalService.findDetail(id, viewer, reviewLimit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    // Reviews of a service newest first, one keyset page at a time (public)
     @GetMapping("/{id}/reviews")
-    public ResponseEntity<List<Map<String, Object>>> getServiceReviews(@PathVariable Long id) {
-        System.out.println("=== FETCHING REVIEWS FOR SERVICE ID: " + id + " ===");
-        
+    public ResponseEntity<?> getServiceReviews(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
         try {
-            List<Review> reviews = reviewService.getReviewsByServiceId(id);
-            
-            System.out.println("Found " + reviews.size() + " reviews in database");
-            
-            List<Map<String, Object>> response = reviews.stream()
-                .map(review -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", review.getId());
-                    
-                    // Get client name from database or derive from email
-                    String clientName = review.getClientName();
-                    if (clientName == null || clientName.isEmpty()) {
-                        clientName = review.getClientEmail();
-                        if (clientName != null && clientName.contains("@")) {
-                            clientName = clientName.substring(0, clientName.indexOf("@"));
-                        }
-                    }
-                    map.put("clientName", clientName != null ? clientName : "مستخدم");
-                    
-                    map.put("clientEmail", review.getClientEmail());
-                    
-                    // Handle rating - convert BigDecimal to double
-                    if (review.getRating() != null) {
-                        map.put("rating", review.getRating().doubleValue());
-                    } else {
-                        map.put("rating", 0.0);
-                    }
-                    
-                    // Handle comment
-                    map.put("comment", review.getComment() != null ? review.getComment() : "");
-                    
-                    // Handle dates
-                    if (review.getReviewDate() != null) {
-                        map.put("reviewDate", review.getReviewDate().toString());
-                    } else {
-                        map.put("reviewDate", LocalDate.now().toString());
-                    }
-                    
-                    if (review.getCreatedAt() != null) {
-                        map.put("createdAt", review.getCreatedAt().toString());
-                    }
-                    
-                    System.out.println("Review: " + clientName + " - Rating: " + map.get("rating") + " - Comment: " + map.get("comment"));
-                    return map;
-                })
-                .collect(Collectors.toList());
-        
-            System.out.println("Returning " + response.size() + " reviews to client");
-            return ResponseEntity.ok(response);
+            CachedBody body = responseBodyCache.get(ResponseBodyCache.reviewsKey(id, cursor, limit),
+                () -> reviewService.getReviewsByServiceId(id, cursor, limit));
+            return cachedResponse(body, acceptsGzip(request));
             
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
-            System.err.println("ERROR fetching reviews: " + e.getMessage());
-            e.printStackTrace();
-            // Return empty list instead of error to prevent app crash
-            return ResponseEntity.ok(new ArrayList<>());
+            log.error("Fetching reviews of service {} failed", id, e);
+            // Return an empty page instead of error to prevent app crash
+            return ResponseEntity.ok(new CursorPage<>(List.of(), null));
         }
     }
 
@@ -145,7 +209,7 @@ public class ServiceProposalController {
             @Valid @RequestBody Map<String, Object> requestBody,
             Authentication auth) {
         try {
-            Account user = accountService.getByEmail(auth.getName());
+            AccountView user = accountService.getView(auth.getName());
             
             String name = (String) requestBody.get("name");
             String description = (String) requestBody.get("description");
@@ -177,7 +241,7 @@ public class ServiceProposalController {
             response.put("status", "pending");
             response.put("category", created.getCategory());
             response.put("institution", created.getInstitution());
-            response.put("proposedById", user.getId());
+            response.put("proposedById", user.id());
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -225,16 +289,23 @@ public class ServiceProposalController {
 
     // Vote for a service
     @PostMapping("/{id}/vote")
-    public ResponseEntity<?> vote(@PathVariable Long id) {
+    public ResponseEntity<?> vote(@PathVariable Long id, Authentication auth) {
         try {
-            ServiceProposal voted = serviceProposalService.vote(id);
+            // The account id comes from the verified token: no account lookup per vote
+            Long voterId = ((JwtPrincipal) auth.getPrincipal()).accountId();
+            VoteCount voted = serviceProposalService.vote(id, voterId);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("id", voted.getId());
-            response.put("name", voted.getName());
-            response.put("votes", voted.getVotes());
+            response.put("id", voted.id());
+            response.put("name", voted.name());
+            response.put("votes", voted.votes());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            // Already voted for this service
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -250,7 +321,8 @@ public class ServiceProposalController {
             Authentication auth) {
         try {
             String userEmail = auth.getName();
-            Account user = accountService.getByEmail(userEmail);
+            // The reviewer must still have an account; a cache hit on the hot path
+            accountService.getView(userEmail);
             
             ReviewDTO authenticatedReviewDTO = new ReviewDTO(
                 userEmail,
@@ -0,0 +1,27 @@
+package com.projectjend.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One of the caller's own reviews with the service it is about, selected by a single joined projection
+public record AccountReviewView(
+    Long id,
+    Long serviceId,
+    String serviceName,
+    String serviceCategory,
+    double rating,
+    String comment,
+    LocalDate reviewDate,
+    Instant createdAt
+) {
+
+    public AccountReviewView(Long id, Long serviceId, String serviceName, String serviceCategory,
+                             BigDecimal rating, String comment, LocalDate reviewDate, Instant createdAt) {
+        this(id, serviceId, serviceName, serviceCategory,
+            rating != null ? rating.doubleValue() : 0.0,
+            comment != null ? comment : "",
+            reviewDate,
+            createdAt);
+    }
+}
@@ -0,0 +1,19 @@
+package com.projectjend.demo.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Immutable account profile without the password hash; what the account cache holds and /me returns
+public record AccountView(
+    Long id,
+    String name,
+    String email,
+    String phone,
+    LocalDate birthDate,
+    String gender,
+    String delegation,
+    String sector,
+    String role,
+    Instant createdAt,
+    Instant updatedAt
+) {}
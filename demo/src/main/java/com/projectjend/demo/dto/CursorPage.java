@@ -0,0 +1,19 @@
+package com.projectjend.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(
+    List<T> items,
+    String nextCursor
+) {
+
+    // Keyset page from rows fetched with one extra lookahead row: the extra row only signals a next page
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> position) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, size);
+        return new CursorPage<>(page, position.apply(page.get(size - 1)).encode());
+    }
+}
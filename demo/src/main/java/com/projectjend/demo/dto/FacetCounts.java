@@ -0,0 +1,12 @@
+package com.projectjend.demo.dto;
+
+import java.util.Map;
+
+// Number of services per facet value; each facet is counted under the other selected filters
+public record FacetCounts(
+    int total,
+    Map<String, Integer> delegation,
+    Map<String, Integer> sector,
+    Map<String, Integer> category,
+    Map<String, Integer> institution
+) {}
@@ -0,0 +1,14 @@
+package com.projectjend.demo.dto;
+
+import java.util.List;
+
+// Outcome of one bulk import; errors holds the first few rejected rows
+public record ImportReport(
+    String type,
+    long rows,
+    long imported,
+    long skipped,
+    List<String> errors,
+    long millis,
+    double rowsPerSecond
+) {}
@@ -0,0 +1,6 @@
+package com.projectjend.demo.dto;
+
+public record NearbyService(
+    ServiceCard service,
+    double distanceKm
+) {}
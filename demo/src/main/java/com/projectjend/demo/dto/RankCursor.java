@@ -0,0 +1,26 @@
+package com.projectjend.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position (score, tiebreak, id) of the last entry of a leaderboard page, sent
+ * to clients as an opaque URL-safe token like {@link PageCursor}.
+ */
+public record RankCursor(double score, long tiebreak, Long id) {
+
+    public String encode() {
+        String raw = score + "|" + tiebreak + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RankCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new RankCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("رمز الصفحة غير صالح");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.projectjend.demo.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Stored rating aggregates of one service; histogram[n] counts reviews rated in [n, n+1), histogram[5] those rated 5
+public record RatingSummary(
+    double average,
+    int count,
+    List<Integer> histogram
+) {
+
+    public RatingSummary(Double average, Integer count, Integer stars0, Integer stars1, Integer stars2,
+                         Integer stars3, Integer stars4, Integer stars5) {
+        this(average != null ? average : 0.0,
+            count != null ? count : 0,
+            Arrays.stream(new Integer[] {stars0, stars1, stars2, stars3, stars4, stars5})
+                .map(stars -> stars != null ? stars : 0)
+                .toList());
+    }
+}
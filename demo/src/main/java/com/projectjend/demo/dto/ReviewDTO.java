@@ -3,6 +3,7 @@ package com.projectjend.demo.dto;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -12,6 +13,6 @@ public record ReviewDTO(
     Long serviceProposalId,
     LocalDate bookingStartDate,
     LocalDate bookingEndDate,
-    @DecimalMin("0.0") @DecimalMax("5.0") BigDecimal rating,
+    @NotNull @DecimalMin("0.0") @DecimalMax("5.0") BigDecimal rating,
     String comment
 ) {}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.projectjend.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Read-only review row, selected straight from a JPQL constructor expression
+public record ReviewView(
+    Long id,
+    String clientName,
+    String clientEmail,
+    double rating,
+    String comment,
+    LocalDate reviewDate,
+    Instant createdAt
+) {
+
+    public ReviewView(Long id, String clientName, String clientEmail, BigDecimal rating,
+                      String comment, LocalDate reviewDate, Instant createdAt) {
+        this(id,
+            displayName(clientName, clientEmail),
+            clientEmail,
+            rating != null ? rating.doubleValue() : 0.0,
+            comment != null ? comment : "",
+            reviewDate != null ? reviewDate : LocalDate.now(),
+            createdAt);
+    }
+
+    // Get client name from database or derive from email
+    private static String displayName(String clientName, String clientEmail) {
+        if (clientName != null && !clientName.isEmpty()) {
+            return clientName;
+        }
+        if (clientEmail != null && clientEmail.contains("@")) {
+            return clientEmail.substring(0, clientEmail.indexOf("@"));
+        }
+        return clientEmail != null ? clientEmail : "مستخدم";
+    }
+}
@@ -0,0 +1,6 @@
+package com.projectjend.demo.dto;
+
+public record SearchHit(
+    ServiceCard service,
+    double score
+) {}
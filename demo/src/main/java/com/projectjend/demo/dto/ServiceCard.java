@@ -0,0 +1,16 @@
+package com.projectjend.demo.dto;
+
+// Slim, immutable view of a service kept in memory by the catalog indexes (no description)
+public record ServiceCard(
+    Long id,
+    String name,
+    String location,
+    String delegation,
+    String sector,
+    String category,
+    String institution,
+    String provider,
+    int votes,
+    Double averageRating,
+    Integer reviewCount
+) {}
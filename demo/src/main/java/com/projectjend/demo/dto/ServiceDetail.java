@@ -0,0 +1,9 @@
+package com.projectjend.demo.dto;
+
+// Everything a service detail screen shows, in one response; hasReviewed is only set for signed-in callers
+public record ServiceDetail(
+    ServiceSummary service,
+    RatingSummary rating,
+    CursorPage<ReviewView> reviews,
+    Boolean hasReviewed
+) {}
@@ -0,0 +1,23 @@
+package com.projectjend.demo.dto;
+
+// A catalog row as loaded for indexing: the in-memory card plus the text that is indexed but not kept
+public record ServiceDocument(
+    Long id,
+    String name,
+    String description,
+    String location,
+    String delegation,
+    String sector,
+    String category,
+    String institution,
+    String provider,
+    int votes,
+    Double averageRating,
+    Integer reviewCount
+) {
+
+    public ServiceCard toCard() {
+        return new ServiceCard(id, name, location, delegation, sector, category, institution,
+            provider, votes, averageRating, reviewCount);
+    }
+}
@@ -0,0 +1,26 @@
+package com.projectjend.demo.dto;
+
+// Optional catalog filters; a null value matches every service
+public record ServiceFilter(
+    String delegation,
+    String sector,
+    String category,
+    String institution
+) {
+
+    public static ServiceFilter of(String delegation, String sector, String category, String institution) {
+        return new ServiceFilter(blankToNull(delegation), blankToNull(sector),
+            blankToNull(category), blankToNull(institution));
+    }
+
+    public boolean matches(ServiceCard card) {
+        return (delegation == null || delegation.equals(card.delegation()))
+            && (sector == null || sector.equals(card.sector()))
+            && (category == null || category.equals(card.category()))
+            && (institution == null || institution.equals(card.institution()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,33 @@
+package com.projectjend.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Read-only catalog row, selected straight from a JPQL constructor expression
+public record ServiceSummary(
+    Long id,
+    String name,
+    String description,
+    String location,
+    int votes,
+    String ownerEmail,
+    LocalDate endDate,
+    String reservationLink,
+    String delegation,
+    String sector,
+    String provider,
+    String institution,
+    String category,
+    Double averageRating,
+    Integer reviewCount,
+    Long proposedById,
+    @JsonIgnore Instant createdAt
+) {
+
+    @JsonProperty("status")
+    public String status() {
+        return "active";
+    }
+}
@@ -0,0 +1,8 @@
+package com.projectjend.demo.dto;
+
+// A completion for the search box; serviceId is set for service names, absent for providers
+public record Suggestion(
+    String text,
+    String field,
+    Long serviceId
+) {}
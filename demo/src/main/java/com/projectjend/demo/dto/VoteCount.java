@@ -0,0 +1,8 @@
+package com.projectjend.demo.dto;
+
+// Vote total as seen by the caller, including votes not yet flushed to the database
+public record VoteCount(
+    Long id,
+    String name,
+    long votes
+) {}
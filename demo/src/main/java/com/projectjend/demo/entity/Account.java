@@ -36,4 +36,7 @@ public class Account extends BaseEntity {
   private String delegation;
   
   private String sector;
+
+  // Null for ordinary users; IMPORTER or ADMIN may call the bulk import endpoints
+  private String role;
 }
\ No newline at end of file
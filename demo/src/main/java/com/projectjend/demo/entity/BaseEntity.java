@@ -13,8 +13,10 @@ import java.time.Instant;
 @Setter
 public abstract class BaseEntity {
 
+  // One pooled sequence per entity (<table>_seq, 50 ids per round trip) so inserts can be
+  // JDBC-batched; IDENTITY columns force one INSERT per statement. See IdSequenceAligner.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
   private Long id;
 
   @CreationTimestamp
@@ -0,0 +1,16 @@
+package com.projectjend.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Highest journal sequence already written to the database; a single row
+@Entity
+@Table(name = "journal_checkpoints")
+@Getter
+@Setter
+public class JournalCheckpoint extends BaseEntity {
+
+  @Column(name = "applied_sequence", nullable = false)
+  private long appliedSequence;
+}
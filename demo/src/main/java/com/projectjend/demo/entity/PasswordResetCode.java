@@ -0,0 +1,29 @@
+package com.projectjend.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// The outstanding password reset code of one account; at most one row per email
+@Entity
+@Table(name = "password_reset_codes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_password_reset_codes_email", columnNames = "email")
+}, indexes = {
+    // Purge of expired codes
+    @Index(name = "idx_password_reset_codes_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+public class PasswordResetCode extends BaseEntity {
+
+  @Column(nullable = false)
+  private String email;
+
+  @Column(nullable = false, length = 16)
+  private String code;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+}
@@ -9,7 +9,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "reviews")
+// One review per (service, client email): the insert itself rejects a second one
+@Table(name = "reviews", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reviews_service_client", columnNames = {"service_proposal_id", "client_email"})
+}, indexes = {
+    // Keyset pagination of a service's reviews, newest first
+    @Index(name = "idx_reviews_service_created", columnList = "service_proposal_id, created_at, id"),
+    // A client's own reviews, newest first
+    @Index(name = "idx_reviews_client_created", columnList = "client_email, created_at, id")
+})
 @Getter
 @Setter
 public class Review extends BaseEntity {
@@ -5,10 +5,18 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "service_proposals")
+@Table(name = "service_proposals", indexes = {
+    // Keyset pagination of the catalog, optionally narrowed by one filter
+    @Index(name = "idx_service_proposals_created", columnList = "created_at, id"),
+    @Index(name = "idx_service_proposals_delegation", columnList = "delegation, created_at, id"),
+    @Index(name = "idx_service_proposals_sector", columnList = "sector, created_at, id"),
+    @Index(name = "idx_service_proposals_category", columnList = "category, created_at, id"),
+    @Index(name = "idx_service_proposals_institution", columnList = "institution, created_at, id")
+})
 @Getter
 @Setter
 public class ServiceProposal extends BaseEntity {
@@ -26,6 +34,8 @@ public class ServiceProposal extends BaseEntity {
   @NotBlank
   private String location;
 
+  // Only ever changed by the atomic "votes = votes + :delta" update, never by entity saves
+  @Column(updatable = false)
   private int votes = 0;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -52,10 +62,35 @@ public class ServiceProposal extends BaseEntity {
   
   private String category;
   
+  // Rating aggregates below are only changed by single-statement UPDATEs on review
+  // insert/delete (see ServiceProposalRepository.applyRating), never by entity saves
   // FIX: Remove precision and scale for floating point
-  @Column(name = "average_rating")
+  @Column(name = "average_rating", updatable = false)
   private Double averageRating = 0.0;
   
-  @Column(name = "review_count")
+  @Column(name = "review_count", updatable = false)
   private Integer reviewCount = 0;
+
+  // Running sum of ratings; null on rows created before it existed, until backfilled
+  @Column(name = "rating_sum", precision = 12, scale = 1, updatable = false)
+  private BigDecimal ratingSum = BigDecimal.ZERO;
+
+  // Rating histogram: starsN counts reviews rated in [N, N+1), stars5 those rated 5
+  @Column(name = "stars_0", updatable = false)
+  private Integer stars0 = 0;
+
+  @Column(name = "stars_1", updatable = false)
+  private Integer stars1 = 0;
+
+  @Column(name = "stars_2", updatable = false)
+  private Integer stars2 = 0;
+
+  @Column(name = "stars_3", updatable = false)
+  private Integer stars3 = 0;
+
+  @Column(name = "stars_4", updatable = false)
+  private Integer stars4 = 0;
+
+  @Column(name = "stars_5", updatable = false)
+  private Integer stars5 = 0;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.projectjend.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// One row per (service, account): an account can vote for a service only once
+@Entity
+@Table(name = "service_votes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_service_votes_service_account", columnNames = {"service_proposal_id", "account_id"})
+})
+@Getter
+@Setter
+public class ServiceVote extends BaseEntity {
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "service_proposal_id", nullable = false)
+  private ServiceProposal serviceProposal;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "account_id", nullable = false)
+  private Account account;
+}
@@ -0,0 +1,5 @@
+package com.projectjend.demo.event;
+
+// Published whenever an account's profile or credentials are updated
+public record AccountChangedEvent(Long accountId) {
+}
@@ -0,0 +1,13 @@
+package com.projectjend.demo.event;
+
+import java.util.Collection;
+import java.util.List;
+
+// Published whenever a service, or anything the catalog shows about it (votes, ratings), changes.
+// Bulk writes publish one event for the whole batch so listeners can refresh it in one pass.
+public record CatalogChangedEvent(Collection<Long> serviceIds) {
+
+    public CatalogChangedEvent(Long serviceId) {
+        this(List.of(serviceId));
+    }
+}
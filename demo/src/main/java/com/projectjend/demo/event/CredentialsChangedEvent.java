@@ -0,0 +1,5 @@
+package com.projectjend.demo.event;
+
+// Published when an account's password or email changes; tokens issued before it stop being accepted
+public record CredentialsChangedEvent(Long accountId) {
+}
@@ -0,0 +1,184 @@
+package com.projectjend.demo.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.ImportReport;
+import com.projectjend.demo.dto.ReviewDTO;
+import com.projectjend.demo.dto.ServiceProposalDTO;
+import com.projectjend.demo.index.CatalogIndexer;
+import com.projectjend.demo.rating.RatingAggregateVerifier;
+import com.projectjend.demo.review.ReviewMembership;
+import com.projectjend.demo.service.ReviewService;
+import com.projectjend.demo.service.ServiceProposalService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams partner data (NDJSON or CSV) into the database in fixed-size
+ * batches, one transaction per batch, so memory stays flat whatever the file
+ * size. A batch the database rejects is retried row by row to isolate the bad
+ * rows. Review imports leave the rating aggregates alone until the end, then
+ * rebuild each affected service once.
+ */
+@Component
+public class BulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImporter.class);
+
+    private static final int MAX_ERRORS = 20;
+    private static final int REBUILD_CHUNK = 1000;
+
+    private final ServiceProposalService serviceProposalService;
+    private final ReviewService reviewService;
+    private final ReviewMembership reviewMembership;
+    private final CatalogIndexer catalogIndexer;
+    private final RatingAggregateVerifier ratings;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkImporter(ServiceProposalService serviceProposalService,
+                        ReviewService reviewService,
+                        ReviewMembership reviewMembership,
+                        CatalogIndexer catalogIndexer,
+                        RatingAggregateVerifier ratings,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        @Value("${imports.batch-size:1000}") int batchSize) {
+        this.serviceProposalService = serviceProposalService;
+        this.reviewService = reviewService;
+        this.reviewMembership = reviewMembership;
+        this.catalogIndexer = catalogIndexer;
+        this.ratings = ratings;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public ImportReport importServices(InputStream in, boolean csv, AccountView proposedBy) {
+        return run("services", new RowReader<>(in, csv, objectMapper, ServiceProposalDTO.class),
+            dto -> null,
+            batch -> serviceProposalService.importBatch(batch, proposedBy));
+    }
+
+    public ImportReport importReviews(InputStream in, boolean csv) {
+        // Rows already accepted in this import, for catching duplicates within one batch
+        Set<String> batchKeys = new HashSet<>();
+        Set<Long> touched = new HashSet<>();
+        try {
+            return run("reviews", new RowReader<>(in, csv, objectMapper, ReviewDTO.class),
+                dto -> {
+                    if (dto.serviceProposalId() == null || catalogIndexer.card(dto.serviceProposalId()) == null) {
+                        return "الخدمة غير موجودة";
+                    }
+                    String key = dto.serviceProposalId() + ":" + dto.clientEmail();
+                    if (batchKeys.contains(key) || reviewMembership.hasReviewed(dto.serviceProposalId(), dto.clientEmail())) {
+                        return "لقد قمت بتقييم هذه الخدمة مسبقاً";
+                    }
+                    batchKeys.add(key);
+                    return null;
+                },
+                batch -> {
+                    batchKeys.clear();
+                    touched.addAll(reviewService.importBatch(batch));
+                });
+        } finally {
+            // Batches committed before an aborted upload still need their aggregates and catalog event
+            List<Long> ids = new ArrayList<>(touched);
+            for (int i = 0; i < ids.size(); i += REBUILD_CHUNK) {
+                ratings.rebuild(ids.subList(i, Math.min(ids.size(), i + REBUILD_CHUNK)));
+            }
+        }
+    }
+
+    private <T> ImportReport run(String type, RowReader<T> reader, Function<T, String> check,
+                                 Consumer<List<T>> persist) {
+        long started = System.nanoTime();
+        Counts counts = new Counts();
+        List<RowReader.Row<T>> batch = new ArrayList<>(batchSize);
+
+        for (RowReader.Row<T> row = reader.next(); row != null; row = reader.next()) {
+            counts.rows++;
+            String error = row.error() != null ? row.error() : validate(row.value());
+            if (error == null) {
+                error = check.apply(row.value());
+            }
+            if (error != null) {
+                counts.reject(row.line(), error);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                flush(batch, persist, counts);
+            }
+        }
+        flush(batch, persist, counts);
+
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        double rowsPerSecond = counts.rows * 1000.0 / millis;
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/s), {} skipped",
+            counts.imported, counts.rows, type, millis, Math.round(rowsPerSecond), counts.skipped);
+        return new ImportReport(type, counts.rows, counts.imported, counts.skipped, counts.errors,
+            millis, Math.round(rowsPerSecond * 10) / 10.0);
+    }
+
+    private <T> void flush(List<RowReader.Row<T>> batch, Consumer<List<T>> persist, Counts counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persist.accept(batch.stream().map(RowReader.Row::value).toList());
+            counts.imported += batch.size();
+        } catch (RuntimeException e) {
+            // The whole batch rolled back: find the offending rows one at a time
+            for (RowReader.Row<T> row : batch) {
+                try {
+                    persist.accept(List.of(row.value()));
+                    counts.imported++;
+                } catch (RuntimeException rowFailure) {
+                    counts.reject(row.line(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private <T> String validate(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static final class Counts {
+        long rows;
+        long imported;
+        long skipped;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(long line, String error) {
+            skipped++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(line + ": " + error);
+            }
+        }
+    }
+}
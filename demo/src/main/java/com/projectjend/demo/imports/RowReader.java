@@ -0,0 +1,146 @@
+package com.projectjend.demo.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads import rows one at a time from NDJSON (one JSON object per line) or
+ * CSV (a header row naming the fields, RFC 4180 quoting). Only the current
+ * record is held in memory.
+ */
+class RowReader<T> {
+
+    // A parsed row, or the reason it could not be parsed
+    record Row<T>(long line, T value, String error) {}
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final List<String> header;
+    private long line;
+
+    RowReader(InputStream in, boolean csv, ObjectMapper objectMapper, Class<T> type) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.header = csv ? readRecord() : null;
+        if (csv && header == null) {
+            throw new IllegalArgumentException("ملف CSV فارغ");
+        }
+    }
+
+    // Next row, or null at the end of the input
+    Row<T> next() {
+        while (true) {
+            long start = line + 1;
+            T value;
+            try {
+                if (header == null) {
+                    String text = readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    value = objectMapper.readValue(text, type);
+                } else {
+                    List<String> fields = readRecord();
+                    if (fields == null) {
+                        return null;
+                    }
+                    if (fields.size() == 1 && fields.get(0).isBlank()) {
+                        continue;
+                    }
+                    value = objectMapper.convertValue(toMap(fields), type);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                return new Row<>(start, null, e.getMessage());
+            }
+            return new Row<>(start, value, null);
+        }
+    }
+
+    private Map<String, String> toMap(List<String> fields) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                map.put(header.get(i).trim(), fields.get(i));
+            }
+        }
+        return map;
+    }
+
+    // One CSV record; a quoted field may span several lines
+    private List<String> readRecord() {
+        String text = readLine();
+        if (text == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    break;
+                }
+                String more = readLine();
+                if (more == null) {
+                    break;
+                }
+                field.append('\n');
+                text = more;
+                i = 0;
+                continue;
+            }
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+                // Spreadsheet exports often start with a byte order mark
+                if (line == 1 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1);
+                }
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
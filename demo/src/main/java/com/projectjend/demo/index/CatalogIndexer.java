@@ -0,0 +1,110 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.ServiceDocument;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.repository.ServiceProposalRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a slim card per service in memory and feeds every {@link ServiceIndex}.
+ * The catalog is loaded once before the application starts serving, then each
+ * committed write re-reads the one affected card and fans it out.
+ */
+@Component
+public class CatalogIndexer implements SmartInitializingSingleton {
+
+    private static final int REFRESH_CHUNK = 1000;
+
+    private final ServiceProposalRepository repository;
+    private final List<ServiceIndex> indexes;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, ServiceCard> cards = new ConcurrentHashMap<>();
+
+    public CatalogIndexer(ServiceProposalRepository repository,
+                          List<ServiceIndex> indexes,
+                          PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.indexes = indexes;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ServiceDocument> rows = repository.streamDocuments()) {
+                rows.forEach(document -> apply(document.id(), document));
+            }
+        });
+    }
+
+    public ServiceCard card(Long id) {
+        return cards.get(id);
+    }
+
+    // Cards for the given ids in the same order, skipping services deleted in the meantime
+    public List<ServiceCard> cards(Collection<Long> ids) {
+        List<ServiceCard> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ServiceCard card = cards.get(id);
+            if (card != null) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return cards.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresh(event.serviceIds());
+    }
+
+    // Serialized so two writes to the same service cannot be applied out of order
+    public synchronized void refresh(Long id) {
+        apply(id, repository.findDocumentById(id).orElse(null));
+    }
+
+    // Batches of services (bulk imports, rating rebuilds) are re-read with one query per chunk
+    public synchronized void refresh(Collection<Long> ids) {
+        if (ids.size() == 1) {
+            refresh(ids.iterator().next());
+            return;
+        }
+        List<Long> all = new ArrayList<>(ids);
+        for (int i = 0; i < all.size(); i += REFRESH_CHUNK) {
+            List<Long> chunk = all.subList(i, Math.min(all.size(), i + REFRESH_CHUNK));
+            Map<Long, ServiceDocument> documents = new HashMap<>();
+            repository.findDocumentsByIdIn(chunk).forEach(document -> documents.put(document.id(), document));
+            chunk.forEach(id -> apply(id, documents.get(id)));
+        }
+    }
+
+    private void apply(Long id, ServiceDocument document) {
+        ServiceCard card = document != null ? document.toCard() : null;
+        ServiceCard previous = card != null ? cards.put(id, card) : cards.remove(id);
+        for (ServiceIndex index : indexes) {
+            if (card != null) {
+                index.put(card, document.description(), previous);
+            } else if (previous != null) {
+                index.remove(previous);
+            }
+        }
+    }
+}
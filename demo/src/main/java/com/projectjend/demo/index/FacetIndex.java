@@ -0,0 +1,146 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.FacetCounts;
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.ServiceFilter;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * One compressed bitmap of service ids per facet value. Counts for any filter
+ * combination are bitmap intersections, so the database is never grouped.
+ * Service ids are database identities and are assumed to fit in an int.
+ */
+@Component
+public class FacetIndex implements ServiceIndex {
+
+    private enum Facet {
+        DELEGATION(ServiceCard::delegation, ServiceFilter::delegation),
+        SECTOR(ServiceCard::sector, ServiceFilter::sector),
+        CATEGORY(ServiceCard::category, ServiceFilter::category),
+        INSTITUTION(ServiceCard::institution, ServiceFilter::institution);
+
+        private final Function<ServiceCard, String> value;
+        private final Function<ServiceFilter, String> selected;
+
+        Facet(Function<ServiceCard, String> value, Function<ServiceFilter, String> selected) {
+            this.value = value;
+            this.selected = selected;
+        }
+    }
+
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    @Override
+    public void put(ServiceCard card, String description, ServiceCard previous) {
+        int id = Math.toIntExact(card.id());
+        lock.writeLock().lock();
+        try {
+            all.add(id);
+            for (Facet facet : Facet.values()) {
+                String value = facet.value.apply(card);
+                String old = previous != null ? facet.value.apply(previous) : null;
+                if (previous != null && Objects.equals(old, value)) {
+                    continue;
+                }
+                if (old != null) {
+                    clear(facet, old, id);
+                }
+                if (value != null) {
+                    bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ServiceCard previous) {
+        int id = Math.toIntExact(previous.id());
+        lock.writeLock().lock();
+        try {
+            all.remove(id);
+            for (Facet facet : Facet.values()) {
+                String old = facet.value.apply(previous);
+                if (old != null) {
+                    clear(facet, old, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetCounts counts(ServiceFilter filter) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                // A facet is counted without its own selection so the UI can still offer its siblings
+                RoaringBitmap base = selection(filter, facet);
+                Map<String, Integer> values = new LinkedHashMap<>();
+                if (base == null || !base.isEmpty()) {
+                    bitmaps.get(facet).forEach((value, ids) -> {
+                        int count = base == null ? ids.getCardinality() : RoaringBitmap.andCardinality(base, ids);
+                        if (count > 0) {
+                            values.put(value, count);
+                        }
+                    });
+                }
+                counts.put(facet, values);
+            }
+            RoaringBitmap matching = selection(filter, null);
+            int total = matching == null ? all.getCardinality() : matching.getCardinality();
+            return new FacetCounts(total, counts.get(Facet.DELEGATION), counts.get(Facet.SECTOR),
+                counts.get(Facet.CATEGORY), counts.get(Facet.INSTITUTION));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersection of the selected facet values except the skipped one; null when nothing narrows the catalog
+    private RoaringBitmap selection(ServiceFilter filter, Facet skipped) {
+        RoaringBitmap result = null;
+        for (Facet facet : Facet.values()) {
+            String selected = facet.selected.apply(filter);
+            if (facet == skipped || selected == null) {
+                continue;
+            }
+            RoaringBitmap ids = bitmaps.get(facet).get(selected);
+            if (ids == null) {
+                return new RoaringBitmap();
+            }
+            result = result == null ? ids.clone() : RoaringBitmap.and(result, ids);
+        }
+        return result;
+    }
+
+    private void clear(Facet facet, String value, int id) {
+        Map<String, RoaringBitmap> values = bitmaps.get(facet);
+        RoaringBitmap ids = values.get(value);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.NearbyService;
+import com.projectjend.demo.dto.ServiceCard;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Uniform lat/lon grid over ServiceProposal.location. A query walks rows of
+ * cells outwards from the caller, each as wide as the radius needs at that
+ * latitude, and stops as soon as no unvisited row can hold anything closer
+ * than the current k-th result, so cost depends on the local density rather
+ * than on the catalog size. Columns wrap at the antimeridian; where the walk
+ * would visit more cells than there are points, the points are scanned instead.
+ */
+@Component
+public class GeoIndex implements ServiceIndex {
+
+    private static final double CELL_DEG = 0.05;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // Height of a row on the sphere the distances are measured on
+    private static final double CELL_KM = Math.toRadians(CELL_DEG) * EARTH_RADIUS_KM;
+    // Cells from the equator to a pole, and from the antimeridian to the prime meridian
+    private static final int LAT_CELLS = (int) Math.round(90 / CELL_DEG);
+    private static final int LON_CELLS = (int) Math.round(180 / CELL_DEG);
+
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Point>> cells = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(ServiceCard card, String description, ServiceCard previous) {
+        Point old = points.remove(card.id());
+        if (old != null) {
+            removeFromCell(old);
+        }
+        double[] latLon = parse(card.location());
+        if (latLon == null) {
+            return;
+        }
+        Point point = new Point(card, latLon[0], latLon[1]);
+        points.put(card.id(), point);
+        cells.computeIfAbsent(cellKey(point.lat, point.lon), k -> ConcurrentHashMap.newKeySet()).add(point);
+    }
+
+    @Override
+    public void remove(ServiceCard previous) {
+        Point old = points.remove(previous.id());
+        if (old != null) {
+            removeFromCell(old);
+        }
+    }
+
+    // Up to limit services within radiusKm of (lat, lon) that pass the filter, nearest first
+    public List<NearbyService> nearest(double lat, double lon, double radiusKm, int limit,
+                                       Predicate<ServiceCard> filter) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::chord).reversed());
+        Point center = new Point(null, lat, lon);
+        double maxChord = chord(radiusKm);
+        int centerLat = latCell(lat);
+        int centerLon = cell(lon);
+        // Rows have a constant height, so the row count only depends on the radius
+        int maxRow = (int) Math.ceil(radiusKm / CELL_KM) + 1;
+
+        if (plannedCells(centerLat, maxRow, center.cosLat, radiusKm) > points.size()) {
+            // Near the poles the cells get so narrow that walking them costs more than the catalog
+            for (Point point : points.values()) {
+                offer(best, center, point, maxChord, limit, filter);
+            }
+        } else {
+            for (int ring = 0; ring <= maxRow; ring++) {
+                // Anything in this row or beyond is at least (ring - 1) rows away
+                double bound = Math.max(0, ring - 1) * CELL_KM;
+                double reach = best.size() == limit ? Math.min(radiusKm, arcKm(best.peek().chord())) : radiusKm;
+                if (bound > reach) {
+                    break;
+                }
+                walkRow(best, center, centerLat - ring, centerLon, reach, maxChord, limit, filter);
+                if (ring > 0) {
+                    walkRow(best, center, centerLat + ring, centerLon, reach, maxChord, limit, filter);
+                }
+            }
+        }
+
+        List<NearbyService> result = new ArrayList<>(best.size());
+        for (Candidate candidate : best) {
+            result.add(new NearbyService(candidate.point().card, arcKm(candidate.chord())));
+        }
+        result.sort(Comparator.comparingDouble(NearbyService::distanceKm));
+        return result;
+    }
+
+    private void walkRow(PriorityQueue<Candidate> best, Point center, int row, int centerLon, double reachKm,
+                         double maxChord, int limit, Predicate<ServiceCard> filter) {
+        if (row < -LAT_CELLS || row >= LAT_CELLS) {
+            return;
+        }
+        int span = lonSpan(row, center.cosLat, reachKm);
+        for (int dLon = -span; dLon <= Math.min(span, LON_CELLS - 1); dLon++) {
+            Set<Point> cell = cells.get(key(row, wrapLon(centerLon + dLon)));
+            if (cell == null) {
+                continue;
+            }
+            for (Point point : cell) {
+                offer(best, center, point, maxChord, limit, filter);
+            }
+        }
+    }
+
+    // Candidates are ranked by the straight-line distance between unit vectors: it orders points
+    // exactly like the great-circle distance, anywhere on the globe, without trigonometry per point
+    private static void offer(PriorityQueue<Candidate> best, Point center, Point point, double maxChord,
+                              int limit, Predicate<ServiceCard> filter) {
+        double dx = point.x - center.x;
+        double dy = point.y - center.y;
+        double dz = point.z - center.z;
+        double chord = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (chord > maxChord
+                || (best.size() == limit && chord >= best.peek().chord())
+                || !filter.test(point.card)) {
+            return;
+        }
+        if (best.size() == limit) {
+            best.poll();
+        }
+        best.add(new Candidate(point, chord));
+    }
+
+    private static long plannedCells(int centerLat, int maxRow, double cosLat, double radiusKm) {
+        long total = 0;
+        for (int row = Math.max(-LAT_CELLS, centerLat - maxRow);
+             row <= Math.min(LAT_CELLS - 1, centerLat + maxRow); row++) {
+            total += 2L * lonSpan(row, cosLat, radiusKm) + 1;
+        }
+        return total;
+    }
+
+    // Longitude cells either side of the centre that can hold a point of this row within reachKm.
+    // For a longitude difference dLon, sin^2(d/2) >= cos(lat1) cos(lat2) sin^2(dLon/2); the row's
+    // pole-side edge gives the smallest cosine
+    private static int lonSpan(int row, double cosLat, double reachKm) {
+        double edge = Math.min(90, Math.max(Math.abs(row * CELL_DEG), Math.abs((row + 1) * CELL_DEG)));
+        double scale = Math.sqrt(cosLat * Math.cos(Math.toRadians(edge)));
+        double sinHalf = Math.sin(Math.min(Math.PI, reachKm / EARTH_RADIUS_KM) / 2);
+        if (scale <= 0 || sinHalf >= scale) {
+            return LON_CELLS;
+        }
+        double dLon = Math.toDegrees(2 * Math.asin(sinHalf / scale));
+        return (int) Math.min(LON_CELLS, Math.ceil(dLon / CELL_DEG) + 1);
+    }
+
+    private static double chord(double km) {
+        return 2 * Math.sin(Math.min(Math.PI, km / EARTH_RADIUS_KM) / 2);
+    }
+
+    private static double arcKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2));
+    }
+
+    private void removeFromCell(Point point) {
+        cells.computeIfPresent(cellKey(point.lat, point.lon), (k, ids) -> {
+            ids.remove(point);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // "lat,lon" as stored on ServiceProposal; null when missing or out of range
+    static double[] parse(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.indexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        try {
+            double lat = Double.parseDouble(location.substring(0, comma).trim());
+            double lon = Double.parseDouble(location.substring(comma + 1).trim());
+            if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+                return null;
+            }
+            return new double[] {lat, lon};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEG);
+    }
+
+    // The poles fall into the last row on their side
+    private static int latCell(double lat) {
+        return Math.max(-LAT_CELLS, Math.min(LAT_CELLS - 1, cell(lat)));
+    }
+
+    // 180 and -180 are the same meridian: columns wrap around the globe
+    private static int wrapLon(int lonCell) {
+        return Math.floorMod(lonCell + LON_CELLS, 2 * LON_CELLS) - LON_CELLS;
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return key(latCell(lat), wrapLon(cell(lon)));
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    // Identity equality on purpose: a cell removes exactly the instance it was given
+    private static final class Point {
+        final ServiceCard card;
+        final double lat;
+        final double lon;
+        final double cosLat;
+        // Unit vector, computed once so distances need no trigonometry
+        final double x;
+        final double y;
+        final double z;
+
+        Point(ServiceCard card, double lat, double lon) {
+            this.card = card;
+            this.lat = lat;
+            this.lon = lon;
+            this.cosLat = Math.cos(Math.toRadians(lat));
+            this.x = cosLat * Math.cos(Math.toRadians(lon));
+            this.y = cosLat * Math.sin(Math.toRadians(lon));
+            this.z = Math.sin(Math.toRadians(lat));
+        }
+    }
+
+    private record Candidate(Point point, double chord) {}
+}
@@ -0,0 +1,136 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.RankCursor;
+import com.projectjend.demo.dto.ServiceCard;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Ordered "best rated" and "most voted" rankings, globally and per delegation
+ * and category. Each write moves one entry in a skip list (O(log n)) and pages
+ * are read from a keyset position, so the table is never scanned or sorted.
+ */
+@Component
+public class LeaderboardIndex implements ServiceIndex {
+
+    public enum Board {
+        // Rated services only, by average rating then number of reviews
+        TOP_RATED,
+        MOST_VOTED
+    }
+
+    public enum Scope {
+        ALL, DELEGATION, CATEGORY
+    }
+
+    private static final Comparator<Rank> ORDER = Comparator.comparingDouble(Rank::score).reversed()
+        .thenComparing(Comparator.comparingLong(Rank::tiebreak).reversed())
+        .thenComparingLong(Rank::id);
+
+    private final Map<String, NavigableSet<Rank>> rankings = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(ServiceCard card, String description, ServiceCard previous) {
+        for (Board board : Board.values()) {
+            Rank before = previous != null ? rank(board, previous) : null;
+            Rank after = rank(board, card);
+            if (before != null && after != null && ORDER.compare(before, after) == 0
+                    && sameScopes(previous, card)) {
+                // Same position: swap in the fresh card without reordering
+                forEachScope(board, card, set -> {
+                    set.remove(after);
+                    set.add(after);
+                });
+                continue;
+            }
+            if (before != null) {
+                forEachScope(board, previous, set -> set.remove(before));
+            }
+            if (after != null) {
+                forEachScope(board, card, set -> set.add(after));
+            }
+        }
+    }
+
+    @Override
+    public void remove(ServiceCard previous) {
+        for (Board board : Board.values()) {
+            Rank before = rank(board, previous);
+            if (before != null) {
+                forEachScope(board, previous, set -> set.remove(before));
+            }
+        }
+    }
+
+    public CursorPage<ServiceCard> page(Board board, Scope scope, String value, String cursor, int limit) {
+        NavigableSet<Rank> ranking = rankings.get(key(board, scope, value));
+        if (ranking == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            RankCursor position = RankCursor.decode(cursor);
+            ranking = ranking.tailSet(new Rank(position.score(), position.tiebreak(), position.id(), null), false);
+        }
+        List<ServiceCard> items = new ArrayList<>(limit);
+        Rank last = null;
+        boolean more = false;
+        for (Rank rank : ranking) {
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(rank.card());
+            last = rank;
+        }
+        String nextCursor = more ? new RankCursor(last.score(), last.tiebreak(), last.id()).encode() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private void forEachScope(Board board, ServiceCard card, Consumer<NavigableSet<Rank>> action) {
+        action.accept(ranking(key(board, Scope.ALL, null)));
+        if (card.delegation() != null) {
+            action.accept(ranking(key(board, Scope.DELEGATION, card.delegation())));
+        }
+        if (card.category() != null) {
+            action.accept(ranking(key(board, Scope.CATEGORY, card.category())));
+        }
+    }
+
+    private NavigableSet<Rank> ranking(String key) {
+        return rankings.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    private static boolean sameScopes(ServiceCard a, ServiceCard b) {
+        return Objects.equals(a.delegation(), b.delegation())
+            && Objects.equals(a.category(), b.category());
+    }
+
+    private static String key(Board board, Scope scope, String value) {
+        return board + "|" + scope + "|" + (value != null ? value : "");
+    }
+
+    private static Rank rank(Board board, ServiceCard card) {
+        if (board == Board.MOST_VOTED) {
+            return new Rank(card.votes(), 0, card.id(), card);
+        }
+        int reviews = card.reviewCount() != null ? card.reviewCount() : 0;
+        if (reviews == 0 || card.averageRating() == null) {
+            return null;
+        }
+        return new Rank(card.averageRating(), reviews, card.id(), card);
+    }
+
+    // Ordered by the first three components only; the card rides along for the response
+    private record Rank(double score, long tiebreak, long id, ServiceCard card) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.SearchHit;
+import com.projectjend.demo.dto.ServiceCard;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over name, provider, institution and description, ranked with BM25.
+ * Each service keeps its own term weights so an update only touches the postings
+ * of that service instead of rebuilding anything.
+ */
+@Component
+public class SearchIndex implements ServiceIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float PROVIDER_WEIGHT = 2f;
+    private static final float INSTITUTION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // BM25 saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, ServiceCard> cards = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private double totalLength;
+
+    @Override
+    public void put(ServiceCard card, String description, ServiceCard previous) {
+        Document document = analyze(card, description);
+        lock.writeLock().lock();
+        try {
+            removeDocument(card.id());
+            documents.put(card.id(), document);
+            cards.put(card.id(), card);
+            totalLength += document.length();
+            document.terms().forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(card.id(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ServiceCard previous) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(previous.id());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Best matches first; services matching more of the query terms rank higher
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            int n = documents.size();
+            double averageLength = totalLength / n;
+            Map<Long, double[]> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                    double tf = entry.getValue();
+                    double length = documents.get(entry.getKey()).length();
+                    double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    double[] score = scores.computeIfAbsent(entry.getKey(), id -> new double[2]);
+                    score[0] += idf * norm;
+                    score[1]++;
+                }
+            }
+
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(Comparator.comparingDouble(SearchHit::score));
+            for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+                double[] score = entry.getValue();
+                double coordinated = score[0] * score[1] / queryTerms.size();
+                if (top.size() < limit) {
+                    top.add(new SearchHit(cards.get(entry.getKey()), coordinated));
+                } else if (coordinated > top.peek().score()) {
+                    top.poll();
+                    top.add(new SearchHit(cards.get(entry.getKey()), coordinated));
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                .thenComparing(hit -> hit.service().id()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        cards.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        for (String term : document.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Tokenizing happens outside the lock; only the posting updates are serialized
+    private static Document analyze(ServiceCard card, String description) {
+        Map<String, Float> terms = new HashMap<>();
+        int length = 0;
+        length += addField(terms, card.name(), NAME_WEIGHT);
+        length += addField(terms, card.provider(), PROVIDER_WEIGHT);
+        length += addField(terms, card.institution(), INSTITUTION_WEIGHT);
+        length += addField(terms, description, DESCRIPTION_WEIGHT);
+        return new Document(terms, Math.max(length, 1));
+    }
+
+    private static int addField(Map<String, Float> terms, String text, float weight) {
+        List<String> fieldTerms = TextAnalyzer.terms(text);
+        for (String term : fieldTerms) {
+            terms.merge(term, weight, Float::sum);
+        }
+        return fieldTerms.size();
+    }
+
+    private record Document(Map<String, Float> terms, int length) {
+    }
+}
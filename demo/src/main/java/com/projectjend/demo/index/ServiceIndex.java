@@ -0,0 +1,16 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.ServiceCard;
+
+/**
+ * An in-memory structure over the catalog, kept current by {@link CatalogIndexer}.
+ * Implementations must be thread-safe: queries run concurrently with updates.
+ */
+public interface ServiceIndex {
+
+    // Adds or replaces a service; previous is null when the service is new to the index.
+    // The description is handed over for text indexes only and is not kept by the catalog.
+    void put(ServiceCard card, String description, ServiceCard previous);
+
+    void remove(ServiceCard previous);
+}
@@ -0,0 +1,240 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.Suggestion;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over normalized service names and providers. Every node caches
+ * its best completions by popularity, so a lookup is a walk down the typed
+ * prefix; a write only re-ranks the nodes on the paths of the changed keys.
+ * Completions are reachable from the start of the value and from each word.
+ */
+@Component
+public class SuggestIndex implements ServiceIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_WORD_STARTS = 6;
+
+    private static final Comparator<Completion> RANKING =
+        Comparator.comparingDouble(Completion::weight).reversed().thenComparing(Completion::text);
+
+    private final Node root = new Node();
+    private final Map<String, Completion> completions = new HashMap<>();
+    // Normalized provider -> popularity of each of its services
+    private final Map<String, Map<Long, Double>> providers = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void put(ServiceCard card, String description, ServiceCard previous) {
+        double popularity = popularity(card);
+        lock.writeLock().lock();
+        try {
+            if (previous == null || !Objects.equals(card.name(), previous.name())
+                    || popularity != popularity(previous)) {
+                if (card.name() != null) {
+                    upsert(new Completion("name|" + card.id(), card.name(), "name", card.id(), popularity));
+                } else {
+                    delete("name|" + card.id());
+                }
+            }
+            String provider = providerKey(card.provider());
+            if (previous != null && previous.provider() != null
+                    && !providerKey(previous.provider()).equals(provider)) {
+                detachProvider(providerKey(previous.provider()), previous.id());
+            }
+            boolean providerChanged = previous == null || !provider.equals(providerKey(previous.provider()))
+                || popularity != popularity(previous);
+            if (!provider.isEmpty() && providerChanged) {
+                attachProvider(provider, card.provider(), card.id(), popularity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ServiceCard previous) {
+        lock.writeLock().lock();
+        try {
+            delete("name|" + previous.id());
+            if (previous.provider() != null) {
+                detachProvider(providerKey(previous.provider()), previous.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextAnalyzer.tokens(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (Completion completion : node.top) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                suggestions.add(new Suggestion(completion.text(), completion.field(), completion.serviceId()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void attachProvider(String key, String display, Long serviceId, double popularity) {
+        Map<Long, Double> services = providers.computeIfAbsent(key, k -> new HashMap<>());
+        services.put(serviceId, popularity);
+        upsert(new Completion("provider|" + key, display, "provider", null, total(services)));
+    }
+
+    private void detachProvider(String key, Long serviceId) {
+        Map<Long, Double> services = providers.get(key);
+        if (services == null || services.remove(serviceId) == null) {
+            return;
+        }
+        if (services.isEmpty()) {
+            providers.remove(key);
+            delete("provider|" + key);
+        } else {
+            Completion current = completions.get("provider|" + key);
+            upsert(new Completion(current.id(), current.text(), current.field(), null, total(services)));
+        }
+    }
+
+    private void upsert(Completion completion) {
+        delete(completion.id());
+        completions.put(completion.id(), completion);
+        for (String key : keys(completion.text())) {
+            insert(key, completion);
+        }
+    }
+
+    private void delete(String id) {
+        Completion old = completions.remove(id);
+        if (old != null) {
+            for (String key : keys(old.text())) {
+                remove(key, id);
+            }
+        }
+    }
+
+    private void insert(String key, Completion completion) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+        node.here.put(completion.id(), completion);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).rerank();
+        }
+    }
+
+    private void remove(String key, String id) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+        node.here.remove(id);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.here.isEmpty() && current.children.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+            } else {
+                current.rerank();
+            }
+        }
+    }
+
+    // The whole value plus every word start, with and without the Arabic article
+    private static Set<String> keys(String text) {
+        List<String> tokens = TextAnalyzer.tokens(text);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < tokens.size() && i < MAX_WORD_STARTS; i++) {
+            String rest = String.join(" ", tokens.subList(i, tokens.size()));
+            keys.add(rest);
+            if (rest.startsWith("ال") && tokens.get(i).length() > 3) {
+                keys.add(rest.substring(2));
+            }
+        }
+        return keys;
+    }
+
+    private static String providerKey(String provider) {
+        return provider == null ? "" : String.join(" ", TextAnalyzer.tokens(provider));
+    }
+
+    private static double popularity(ServiceCard card) {
+        double rating = card.averageRating() != null ? card.averageRating() : 0;
+        int reviews = card.reviewCount() != null ? card.reviewCount() : 0;
+        return Math.log1p(Math.max(card.votes(), 0)) + rating / 5 * Math.log1p(reviews);
+    }
+
+    private static double total(Map<Long, Double> services) {
+        double total = 0;
+        for (double popularity : services.values()) {
+            total += popularity;
+        }
+        return total;
+    }
+
+    private record Completion(String id, String text, String field, Long serviceId, double weight) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<String, Completion> here = new HashMap<>();
+        private List<Completion> top = List.of();
+
+        // Best completions of this subtree, merged from the children's cached lists
+        private void rerank() {
+            List<Completion> candidates = new ArrayList<>(here.values());
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(RANKING);
+            List<Completion> best = new ArrayList<>(MAX_SUGGESTIONS);
+            Set<String> seen = new HashSet<>();
+            for (Completion candidate : candidates) {
+                if (best.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+                if (seen.add(candidate.id())) {
+                    best.add(candidate);
+                }
+            }
+            top = List.copyOf(best);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.projectjend.demo.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by the text indexes. Arabic text loses its diacritics and
+ * tatweel, alef/ya/ta-marbuta variants are folded, and words are lightly
+ * stemmed (common prefixes such as "ال"/"وال" and suffixes such as "ات"/"ون").
+ * Latin text is lower-cased, accent-folded and has a trailing plural "s" removed.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "في", "من", "على", "الى", "عن", "مع", "او", "ثم", "هذا", "هذه", "التي", "الذي", "و",
+        "le", "la", "les", "de", "des", "du", "et", "un", "une", "the", "of", "and", "a", "an");
+
+    private static final String[] ARABIC_PREFIXES = {"وال", "بال", "كال", "فال", "لل", "ال"};
+    private static final String[] ARABIC_SUFFIXES = {"ها", "ان", "ات", "ون", "ين", "يه", "ه", "ي"};
+
+    private TextAnalyzer() {
+    }
+
+    // Index/query terms: normalized, stop words dropped, stemmed
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokens(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    // Normalized words in order, without stemming (used for prefix completion)
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Folds text to the form the indexes store: no diacritics, unified letter variants, lower case
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (isArabicDiacritic(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            out.append(foldArabic(c));
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static String stem(String token) {
+        if (!isArabic(token)) {
+            return token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")
+                ? token.substring(0, token.length() - 1)
+                : token;
+        }
+
+        String word = token;
+        if (word.length() > 3 && word.charAt(0) == 'و') {
+            word = word.substring(1);
+        }
+        for (String prefix : ARABIC_PREFIXES) {
+            if (word.startsWith(prefix) && word.length() - prefix.length() >= 2) {
+                word = word.substring(prefix.length());
+                break;
+            }
+        }
+        // Light stemming: peel suffixes while at least a three-letter root remains
+        boolean stripped = true;
+        while (stripped) {
+            stripped = false;
+            for (String suffix : ARABIC_SUFFIXES) {
+                if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                    word = word.substring(0, word.length() - suffix.length());
+                    stripped = true;
+                    break;
+                }
+            }
+        }
+        return word;
+    }
+
+    private static char foldArabic(char c) {
+        switch (c) {
+            case 'أ', 'إ', 'آ', 'ٱ':
+                return 'ا';
+            case 'ى':
+                return 'ي';
+            case 'ة':
+                return 'ه';
+            case 'ؤ':
+                return 'و';
+            case 'ئ':
+                return 'ي';
+            default:
+                // Arabic-Indic and extended Arabic-Indic digits
+                if (c >= '٠' && c <= '٩') {
+                    return (char) ('0' + (c - '٠'));
+                }
+                if (c >= '۰' && c <= '۹') {
+                    return (char) ('0' + (c - '۰'));
+                }
+                return c;
+        }
+    }
+
+    private static boolean isArabicDiacritic(char c) {
+        // Harakat, tanween, shadda, sukun, superscript alef and tatweel
+        return (c >= 'ً' && c <= 'ٟ') || c == 'ٰ' || c == 'ـ';
+    }
+
+    private static boolean isArabic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c >= '؀' && c <= 'ۿ') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
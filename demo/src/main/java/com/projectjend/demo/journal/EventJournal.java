@@ -0,0 +1,194 @@
+package com.projectjend.demo.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal split into fixed-size segment files that are written
+ * through memory-mapped buffers, so an append is a few puts into the page
+ * cache. A segment is named after the first sequence it holds.
+ *
+ * <p>Record layout: {@code [int length][long sequence][byte type][payload][int crc32]},
+ * where length covers sequence, type and payload. A zero length marks the end
+ * of the written data; a torn or corrupt tail is cut off when the journal is opened.
+ */
+public class EventJournal implements AutoCloseable {
+
+    private static final String SUFFIX = ".seg";
+    private static final int HEADER = Integer.BYTES;
+    private static final int OVERHEAD = HEADER + Long.BYTES + 1 + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    // First sequence of each segment -> file
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+
+    public EventJournal(Path directory, int segmentSize, boolean forceOnAppend) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    // Opens the existing segments; sequences continue after both the journal and the checkpoint
+    public synchronized void open(long appliedSequence) {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+            }
+            long last = appliedSequence;
+            if (!segments.isEmpty()) {
+                Path tail = segments.lastEntry().getValue();
+                channel = FileChannel.open(tail, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+                long tailLast = scan(buffer, segments.lastKey() - 1, null);
+                last = Math.max(last, tailLast);
+                // Everything after the last valid record is garbage from a torn write
+                buffer.putInt(buffer.position(), 0);
+            }
+            nextSequence = last + 1;
+            if (segments.isEmpty()) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + directory, e);
+        }
+    }
+
+    public synchronized JournalEntry append(JournalEntry.Type type, byte[] payload) {
+        int size = OVERHEAD + payload.length;
+        if (size + HEADER > segmentSize) {
+            throw new IllegalArgumentException("Journal entry of " + payload.length + " bytes exceeds the segment size");
+        }
+        if (buffer.remaining() < size + HEADER) {
+            roll();
+        }
+        long sequence = nextSequence++;
+        CRC32 crc = new CRC32();
+        int start = buffer.position();
+        buffer.putInt(size - HEADER - Integer.BYTES);
+        buffer.putLong(sequence);
+        buffer.put((byte) type.ordinal());
+        buffer.put(payload);
+        crc.update(buffer.duplicate().position(start + HEADER).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(buffer.position(), 0);
+        if (forceOnAppend) {
+            buffer.force();
+        }
+        return new JournalEntry(sequence, type, payload);
+    }
+
+    // Entries with a sequence above appliedSequence, oldest first
+    public synchronized void replay(long appliedSequence, Consumer<JournalEntry> consumer) {
+        for (Path file : segments.values()) {
+            try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer segment = reader.map(FileChannel.MapMode.READ_ONLY, 0, reader.size());
+                scan(segment, appliedSequence, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal segment " + file, e);
+            }
+        }
+    }
+
+    // Deletes segments whose entries are all applied; the segment being written is kept
+    public synchronized void compact(long appliedSequence) {
+        List<Long> obsolete = new ArrayList<>();
+        Long next = null;
+        for (Long first : segments.descendingKeySet()) {
+            if (next != null && next <= appliedSequence + 1) {
+                obsolete.add(first);
+            }
+            next = first;
+        }
+        for (Long first : obsolete) {
+            try {
+                Files.deleteIfExists(segments.remove(first));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete journal segment", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            channel = null;
+        }
+    }
+
+    private void roll() {
+        try {
+            if (channel != null) {
+                buffer.force();
+                channel.close();
+            }
+            Path file = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segments.put(nextSequence, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll journal segment", e);
+        }
+    }
+
+    // Walks valid records from the buffer's start, leaves the position after the last one
+    private static long scan(MappedByteBuffer segment, long appliedSequence, Consumer<JournalEntry> consumer) {
+        long last = appliedSequence;
+        JournalEntry.Type[] types = JournalEntry.Type.values();
+        segment.position(0);
+        while (segment.remaining() >= OVERHEAD) {
+            int start = segment.position();
+            int length = segment.getInt(start);
+            if (length < Long.BYTES + 1 || length > segment.remaining() - HEADER - Integer.BYTES) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(segment.duplicate().position(start + HEADER).limit(start + HEADER + length));
+            if ((int) crc.getValue() != segment.getInt(start + HEADER + length)) {
+                break;
+            }
+            long sequence = segment.getLong(start + HEADER);
+            int type = segment.get(start + HEADER + Long.BYTES);
+            if (type < 0 || type >= types.length) {
+                break;
+            }
+            if (sequence > appliedSequence && consumer != null) {
+                byte[] payload = new byte[length - Long.BYTES - 1];
+                segment.get(start + HEADER + Long.BYTES + 1, payload);
+                consumer.accept(new JournalEntry(sequence, types[type], payload));
+            }
+            last = Math.max(last, sequence);
+            segment.position(start + HEADER + length + Integer.BYTES);
+        }
+        return last;
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
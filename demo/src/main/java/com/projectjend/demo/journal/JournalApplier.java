@@ -0,0 +1,224 @@
+package com.projectjend.demo.journal;
+
+import com.projectjend.demo.entity.JournalCheckpoint;
+import com.projectjend.demo.repository.JournalCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-ahead path for votes and reviews, enabled with {@code journal.enabled=true}.
+ * Requests append to the {@link EventJournal} and return; a single background
+ * thread applies entries in sequence order, in batches, and commits the highest
+ * applied sequence in the same transaction. On startup everything above that
+ * checkpoint is replayed, so each entry reaches the database exactly once.
+ */
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalApplier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalApplier.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_DELAY_MS = 1000;
+    // Failed attempts before a batch is applied entry by entry and failing entries are dropped
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+
+    private final EventJournal journal;
+    private final Map<JournalEntry.Type, JournalHandler> handlers = new EnumMap<>(JournalEntry.Type.class);
+    private final JournalCheckpointRepository checkpoints;
+    private final TransactionTemplate transaction;
+    private final BlockingQueue<JournalEntry> queue = new LinkedBlockingQueue<>();
+    private final Thread worker = new Thread(this::run, "journal-applier");
+    private volatile boolean running = true;
+    private long applied;
+
+    public JournalApplier(List<JournalHandler> handlers,
+                          JournalCheckpointRepository checkpoints,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${journal.dir:data/journal}") Path directory,
+                          @Value("${journal.segment-size:16777216}") int segmentSize,
+                          @Value("${journal.force-on-append:false}") boolean forceOnAppend) {
+        for (JournalHandler handler : handlers) {
+            this.handlers.put(handler.type(), handler);
+        }
+        this.checkpoints = checkpoints;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.journal = new EventJournal(directory, segmentSize, forceOnAppend);
+        this.worker.setDaemon(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        applied = transaction.execute(status -> checkpoints.findFirstByOrderByIdAsc()
+            .map(JournalCheckpoint::getAppliedSequence)
+            .orElse(0L));
+        journal.open(applied);
+        // Crash recovery: entries accepted but never committed to the database
+        journal.replay(applied, entry -> {
+            JournalHandler handler = handlers.get(entry.type());
+            if (handler != null) {
+                handler.recover(entry);
+            }
+            queue.add(entry);
+        });
+        if (!queue.isEmpty()) {
+            log.info("Replaying {} journal entries after sequence {}", queue.size(), applied);
+        }
+        worker.start();
+    }
+
+    // Request path: one append to the mapped segment and a queue offer
+    public JournalEntry submit(JournalEntry.Type type, byte[] payload) {
+        JournalEntry entry;
+        synchronized (journal) {
+            entry = journal.append(type, payload);
+            queue.add(entry);
+        }
+        return entry;
+    }
+
+    private void run() {
+        List<JournalEntry> batch = new ArrayList<>(BATCH_SIZE);
+        int attempts = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalEntry first = queue.poll(RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+                applyBatch(batch, attempts >= MAX_BATCH_ATTEMPTS);
+                batch.clear();
+                attempts = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Database unavailable: keep the batch and try again, in order. Once the
+                // attempts run out the batch is isolated entry by entry on the next try
+                attempts++;
+                log.warn("Applying {} journal entries failed (attempt {}), retrying", batch.size(), attempts, e);
+                if (!sleepQuietly()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyBatch(List<JournalEntry> batch, boolean isolate) {
+        // After a failed retry some entries may already be committed individually
+        batch.removeIf(entry -> entry.sequence() <= applied);
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!isolate) {
+            try {
+                commit(batch, batch.get(batch.size() - 1).sequence());
+                complete(batch, true);
+                journal.compact(applied);
+                return;
+            } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+                // One bad entry must not block the others: apply them one by one
+            }
+        }
+        for (JournalEntry entry : batch) {
+            if (entry.sequence() <= applied) {
+                continue;
+            }
+            try {
+                commit(List.of(entry), entry.sequence());
+                complete(List.of(entry), true);
+            } catch (RuntimeException rejected) {
+                if (!isolate && !isPoison(rejected)) {
+                    throw rejected;
+                }
+                // The checkpoint-only commit fails too while the database is down,
+                // so an entry is only dropped once the database accepts writes again
+                log.error("Dropping journal entry {} of type {} ({} bytes): {}",
+                    entry.sequence(), entry.type(), entry.payload().length, rejected.toString());
+                commit(List.of(), entry.sequence());
+                complete(List.of(entry), false);
+            }
+        }
+        journal.compact(applied);
+    }
+
+    private static boolean isPoison(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || e instanceof IllegalArgumentException;
+    }
+
+    private void commit(List<JournalEntry> entries, long last) {
+        Map<JournalEntry.Type, List<JournalEntry>> byType = group(entries);
+        transaction.executeWithoutResult(status -> {
+            byType.forEach((type, typed) -> handler(type).apply(typed));
+            JournalCheckpoint checkpoint = checkpoints.findFirstByOrderByIdAsc().orElseGet(JournalCheckpoint::new);
+            checkpoint.setAppliedSequence(Math.max(last, checkpoint.getAppliedSequence()));
+            checkpoints.save(checkpoint);
+        });
+        applied = Math.max(applied, last);
+    }
+
+    private void complete(List<JournalEntry> entries, boolean appliedToDatabase) {
+        group(entries).forEach((type, typed) -> {
+            JournalHandler handler = handlers.get(type);
+            if (handler != null) {
+                handler.complete(typed, appliedToDatabase);
+            }
+        });
+    }
+
+    private JournalHandler handler(JournalEntry.Type type) {
+        JournalHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("No journal handler for " + type);
+        }
+        return handler;
+    }
+
+    private static Map<JournalEntry.Type, List<JournalEntry>> group(List<JournalEntry> entries) {
+        Map<JournalEntry.Type, List<JournalEntry>> byType = new EnumMap<>(JournalEntry.Type.class);
+        for (JournalEntry entry : entries) {
+            byType.computeIfAbsent(entry.type(), type -> new ArrayList<>()).add(entry);
+        }
+        return byType;
+    }
+
+    private static boolean sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let the worker drain what it can; anything left is replayed on the next start
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        worker.interrupt();
+        journal.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.projectjend.demo.journal;
+
+// One accepted write, numbered in the order it entered the journal
+public record JournalEntry(long sequence, Type type, byte[] payload) {
+
+    public enum Type {
+        VOTE, REVIEW
+    }
+}
@@ -0,0 +1,22 @@
+package com.projectjend.demo.journal;
+
+import java.util.List;
+
+/**
+ * Applies one type of journal entry to the database. Entries reach a handler
+ * in sequence order, from the request path first and again after a restart
+ * if they were not applied yet.
+ */
+public interface JournalHandler {
+
+    JournalEntry.Type type();
+
+    // Re-registers an unapplied entry found at startup (pending counts, duplicate guards)
+    void recover(JournalEntry entry);
+
+    // Runs inside the applier's transaction, together with the checkpoint update
+    void apply(List<JournalEntry> entries);
+
+    // After the entries committed (applied = true) or were dropped as unappliable
+    void complete(List<JournalEntry> entries, boolean applied);
+}
@@ -0,0 +1,70 @@
+package com.projectjend.demo.rating;
+
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.repository.ServiceProposalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the per-service rating aggregates (sum, count, average, histogram)
+ * honest: rows that predate the aggregate columns are backfilled at startup,
+ * and a scheduled check compares every service against its raw reviews and
+ * rebuilds any that drifted.
+ */
+@Component
+public class RatingAggregateVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregateVerifier.class);
+
+    private final ServiceProposalRepository repository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transaction;
+
+    public RatingAggregateVerifier(ServiceProposalRepository repository,
+                                   ApplicationEventPublisher events,
+                                   PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.events = events;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Long> missing = transaction.execute(status -> recompute(repository.findIdsWithoutRatingAggregates()));
+        if (!missing.isEmpty()) {
+            log.info("Backfilled rating aggregates of {} services", missing.size());
+        }
+    }
+
+    // Returns the ids of the services that had to be repaired
+    @Scheduled(cron = "${ratings.verify-cron:0 30 3 * * *}")
+    public List<Long> verify() {
+        List<Long> stale = transaction.execute(status -> recompute(repository.findIdsWithStaleRatings()));
+        if (!stale.isEmpty()) {
+            log.warn("Rating aggregates disagreed with reviews for services {}; rebuilt", stale);
+        }
+        return stale;
+    }
+
+    // Recomputes the given services from their reviews, e.g. once after a bulk review import
+    public void rebuild(Collection<Long> ids) {
+        transaction.executeWithoutResult(status -> recompute(ids));
+    }
+
+    private <C extends Collection<Long>> C recompute(C ids) {
+        if (!ids.isEmpty()) {
+            repository.recomputeRatings(ids);
+            events.publishEvent(new CatalogChangedEvent(List.copyOf(ids)));
+        }
+        return ids;
+    }
+}
@@ -1,11 +1,31 @@
 package com.projectjend.demo.repository;
 
+import com.projectjend.demo.dto.AccountView;
 import com.projectjend.demo.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
+
+  // Profile columns only: the password hash never leaves the database on these reads
+  String VIEW = "new com.projectjend.demo.dto.AccountView(a.id, a.name, a.email, a.phone, a.birthDate, "
+      + "a.gender, a.delegation, a.sector, a.role, a.createdAt, a.updatedAt)";
+
   Optional<Account> findByEmail(String email);
   boolean existsByEmail(String email);
+
+  @Query("SELECT " + VIEW + " FROM Account a WHERE a.email = :email")
+  Optional<AccountView> findViewByEmail(@Param("email") String email);
+
+  @Query("SELECT " + VIEW + " FROM Account a WHERE a.id = :id")
+  Optional<AccountView> findViewById(@Param("id") Long id);
+
+  // (email, name) pairs for a batch of emails
+  @Query("SELECT a.email, a.name FROM Account a WHERE a.email IN :emails")
+  List<Object[]> findNamesByEmailIn(@Param("emails") Collection<String> emails);
 }
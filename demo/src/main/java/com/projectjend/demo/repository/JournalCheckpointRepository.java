@@ -0,0 +1,10 @@
+package com.projectjend.demo.repository;
+
+import com.projectjend.demo.entity.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, Long> {
+  Optional<JournalCheckpoint> findFirstByOrderByIdAsc();
+}
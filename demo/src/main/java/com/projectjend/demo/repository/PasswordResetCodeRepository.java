@@ -0,0 +1,33 @@
+package com.projectjend.demo.repository;
+
+import com.projectjend.demo.entity.PasswordResetCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface PasswordResetCodeRepository extends JpaRepository<PasswordResetCode, Long> {
+
+  // Issues or replaces the account's code in one statement, so concurrent requests for the same
+  // email cannot both miss the row and collide on the unique index (PostgreSQL upsert)
+  @Modifying
+  @Query(value = "INSERT INTO password_reset_codes (id, email, code, expires_at, created_at, updated_at) "
+      + "VALUES (nextval('password_reset_codes_seq'), :email, :code, :expiresAt, :now, :now) "
+      + "ON CONFLICT (email) DO UPDATE SET code = EXCLUDED.code, expires_at = EXCLUDED.expires_at, "
+      + "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+  int upsert(@Param("email") String email, @Param("code") String code,
+             @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+  boolean existsByEmailAndCodeAndExpiresAtAfter(String email, String code, Instant now);
+
+  // Check and single use in one statement: 1 if the code was valid and is now gone
+  @Modifying
+  @Query("DELETE FROM PasswordResetCode c WHERE c.email = :email AND c.code = :code AND c.expiresAt > :now")
+  int consume(@Param("email") String email, @Param("code") String code, @Param("now") Instant now);
+
+  @Modifying
+  @Query("DELETE FROM PasswordResetCode c WHERE c.expiresAt <= :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -1,28 +1,63 @@
 package com.projectjend.demo.repository;
 
+import com.projectjend.demo.dto.AccountReviewView;
+import com.projectjend.demo.dto.ReviewView;
 import com.projectjend.demo.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
-    // Primary method to get reviews for a service
-    @Query("SELECT r FROM Review r WHERE r.serviceProposal.id = :serviceProposalId ORDER BY r.createdAt DESC")
-    List<Review> findByServiceProposalIdOrderByCreatedAtDesc(@Param("serviceProposalId") Long serviceProposalId);
+    // Read-only review rows for a service
+    String VIEW = "new com.projectjend.demo.dto.ReviewView(r.id, r.clientName, r.clientEmail, r.rating, "
+         + "r.comment, r.reviewDate, r.createdAt)";
     
-    // Get reviews by client email
-    @Query("SELECT r FROM Review r WHERE r.clientEmail = :clientEmail ORDER BY r.createdAt DESC")
-    List<Review> findByClientEmailOrderByCreatedAtDesc(@Param("clientEmail") String clientEmail);
+    // First page of a service's reviews, newest first
+    @Query("SELECT " + VIEW + " FROM Review r WHERE r.serviceProposal.id = :serviceProposalId "
+         + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewView> findFirstViewPage(@Param("serviceProposalId") Long serviceProposalId, Limit limit);
     
-    // Alternative method with explicit join
-    @Query("SELECT r FROM Review r JOIN r.serviceProposal sp WHERE sp.id = :serviceId ORDER BY r.createdAt DESC")
-    List<Review> findReviewsByServiceId(@Param("serviceId") Long serviceId);
+    // Next page: reviews strictly after the (createdAt, id) keyset of the previous page
+    @Query("SELECT " + VIEW + " FROM Review r WHERE r.serviceProposal.id = :serviceProposalId "
+         + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+         + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewView> findViewPageAfter(@Param("serviceProposalId") Long serviceProposalId,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+    
+    // A client's own reviews with the reviewed service's name and category: one joined query per page
+    String ACCOUNT_VIEW = "new com.projectjend.demo.dto.AccountReviewView(r.id, sp.id, sp.name, sp.category, "
+         + "r.rating, r.comment, r.reviewDate, r.createdAt)";
+    
+    @Query("SELECT " + ACCOUNT_VIEW + " FROM Review r JOIN r.serviceProposal sp WHERE r.clientEmail = :clientEmail "
+         + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<AccountReviewView> findFirstAccountPage(@Param("clientEmail") String clientEmail, Limit limit);
+    
+    @Query("SELECT " + ACCOUNT_VIEW + " FROM Review r JOIN r.serviceProposal sp WHERE r.clientEmail = :clientEmail "
+         + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+         + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<AccountReviewView> findAccountPageAfter(@Param("clientEmail") String clientEmail,
+                                                 @Param("createdAt") Instant createdAt,
+                                                 @Param("id") Long id,
+                                                 Limit limit);
     
     // Check if user has reviewed
     @Query("SELECT COUNT(r) > 0 FROM Review r WHERE r.serviceProposal.id = :serviceProposalId AND r.clientEmail = :clientEmail")
     boolean existsByServiceProposalIdAndClientEmail(@Param("serviceProposalId") Long serviceProposalId, 
                                                    @Param("clientEmail") String clientEmail);
+    
+    // (serviceId, clientEmail) pairs of every review, for warming the membership filter
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT r.serviceProposal.id, r.clientEmail FROM Review r")
+    Stream<Object[]> streamKeys();
 }
\ No newline at end of file
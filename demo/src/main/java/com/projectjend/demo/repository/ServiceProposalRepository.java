@@ -1,7 +1,153 @@
 package com.projectjend.demo.repository;
 
+import com.projectjend.demo.dto.ServiceDocument;
+import com.projectjend.demo.dto.ServiceSummary;
 import com.projectjend.demo.entity.ServiceProposal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ServiceProposalRepository extends JpaRepository<ServiceProposal, Long> {
+
+  // Read-only catalog rows: no managed entities, no dirty-checking snapshots
+  String SUMMARY = "new com.projectjend.demo.dto.ServiceSummary(sp.id, sp.name, sp.description, "
+      + "sp.location, sp.votes, sp.ownerEmail, sp.endDate, sp.reservationLink, sp.delegation, "
+      + "sp.sector, sp.provider, sp.institution, sp.category, sp.averageRating, sp.reviewCount, "
+      + "sp.proposedBy.id, sp.createdAt)";
+
+  // Rows for the in-memory catalog indexes
+  String DOCUMENT = "new com.projectjend.demo.dto.ServiceDocument(sp.id, sp.name, sp.description, sp.location, "
+      + "sp.delegation, sp.sector, sp.category, sp.institution, sp.provider, sp.votes, sp.averageRating, "
+      + "sp.reviewCount)";
+
+  // Stored rating aggregates, including the histogram
+  String RATING = "new com.projectjend.demo.dto.RatingSummary(sp.averageRating, sp.reviewCount, "
+      + "sp.stars0, sp.stars1, sp.stars2, sp.stars3, sp.stars4, sp.stars5)";
+
+  // First catalog page, newest first. A null filter matches every service.
+  @Query("SELECT " + SUMMARY + " FROM ServiceProposal sp WHERE "
+      + "(:delegation IS NULL OR sp.delegation = :delegation) "
+      + "AND (:sector IS NULL OR sp.sector = :sector) "
+      + "AND (:category IS NULL OR sp.category = :category) "
+      + "AND (:institution IS NULL OR sp.institution = :institution) "
+      + "ORDER BY sp.createdAt DESC, sp.id DESC")
+  List<ServiceSummary> findFirstPage(@Param("delegation") String delegation,
+                                     @Param("sector") String sector,
+                                     @Param("category") String category,
+                                     @Param("institution") String institution,
+                                     Limit limit);
+
+  // Next catalog page: rows strictly after the (createdAt, id) keyset of the previous page
+  @Query("SELECT " + SUMMARY + " FROM ServiceProposal sp WHERE "
+      + "(:delegation IS NULL OR sp.delegation = :delegation) "
+      + "AND (:sector IS NULL OR sp.sector = :sector) "
+      + "AND (:category IS NULL OR sp.category = :category) "
+      + "AND (:institution IS NULL OR sp.institution = :institution) "
+      + "AND (sp.createdAt < :createdAt OR (sp.createdAt = :createdAt AND sp.id < :id)) "
+      + "ORDER BY sp.createdAt DESC, sp.id DESC")
+  List<ServiceSummary> findPageAfter(@Param("delegation") String delegation,
+                                     @Param("sector") String sector,
+                                     @Param("category") String category,
+                                     @Param("institution") String institution,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+  // Whole (filtered) catalog as a forward-only JDBC cursor for streaming exports.
+  // Must be consumed inside a transaction so the driver honours the fetch size.
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT " + SUMMARY + " FROM ServiceProposal sp WHERE "
+      + "(:delegation IS NULL OR sp.delegation = :delegation) "
+      + "AND (:sector IS NULL OR sp.sector = :sector) "
+      + "AND (:category IS NULL OR sp.category = :category) "
+      + "AND (:institution IS NULL OR sp.institution = :institution) "
+      + "ORDER BY sp.id")
+  Stream<ServiceSummary> streamAll(@Param("delegation") String delegation,
+                                  @Param("sector") String sector,
+                                  @Param("category") String category,
+                                  @Param("institution") String institution);
+
+  // One row of [ServiceSummary, RatingSummary] for the detail screen, empty if the service does not exist
+  @Query("SELECT " + SUMMARY + ", " + RATING + " FROM ServiceProposal sp WHERE sp.id = :id")
+  List<Object[]> findDetailById(@Param("id") Long id);
+
+  @Query("SELECT " + DOCUMENT + " FROM ServiceProposal sp WHERE sp.id = :id")
+  Optional<ServiceDocument> findDocumentById(@Param("id") Long id);
+
+  @Query("SELECT " + DOCUMENT + " FROM ServiceProposal sp WHERE sp.id IN :ids")
+  List<ServiceDocument> findDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT " + DOCUMENT + " FROM ServiceProposal sp")
+  Stream<ServiceDocument> streamDocuments();
+
+  // Atomic increment in the database: no read-modify-write, no lost votes
+  @Modifying
+  @Query("UPDATE ServiceProposal sp SET sp.votes = sp.votes + :delta WHERE sp.id = :id")
+  int addVotes(@Param("id") Long id, @Param("delta") int delta);
+
+  // One statement per review insert (delta 1, +rating) or delete (delta -1, -rating): sum,
+  // count, rounded average and histogram bucket move together, with no read of the reviews
+  @Modifying
+  @Query("UPDATE ServiceProposal sp SET "
+      + "sp.ratingSum = COALESCE(sp.ratingSum, 0) + :ratingDelta, "
+      + "sp.reviewCount = COALESCE(sp.reviewCount, 0) + :delta, "
+      + "sp.averageRating = CASE WHEN COALESCE(sp.reviewCount, 0) + :delta <= 0 THEN 0 "
+      + "ELSE ROUND((COALESCE(sp.ratingSum, 0) + :ratingDelta) / (COALESCE(sp.reviewCount, 0) + :delta), 1) END, "
+      + "sp.stars0 = COALESCE(sp.stars0, 0) + CASE WHEN :stars = 0 THEN :delta ELSE 0 END, "
+      + "sp.stars1 = COALESCE(sp.stars1, 0) + CASE WHEN :stars = 1 THEN :delta ELSE 0 END, "
+      + "sp.stars2 = COALESCE(sp.stars2, 0) + CASE WHEN :stars = 2 THEN :delta ELSE 0 END, "
+      + "sp.stars3 = COALESCE(sp.stars3, 0) + CASE WHEN :stars = 3 THEN :delta ELSE 0 END, "
+      + "sp.stars4 = COALESCE(sp.stars4, 0) + CASE WHEN :stars = 4 THEN :delta ELSE 0 END, "
+      + "sp.stars5 = COALESCE(sp.stars5, 0) + CASE WHEN :stars = 5 THEN :delta ELSE 0 END "
+      + "WHERE sp.id = :id")
+  int applyRating(@Param("id") Long id,
+                  @Param("ratingDelta") BigDecimal ratingDelta,
+                  @Param("stars") int stars,
+                  @Param("delta") int delta);
+
+  // Rebuilds the rating aggregates of the given services from their reviews
+  @Modifying
+  @Query("UPDATE ServiceProposal sp SET "
+      + "sp.ratingSum = COALESCE((SELECT SUM(r.rating) FROM Review r WHERE r.serviceProposal.id = sp.id), 0), "
+      + "sp.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id), "
+      + "sp.averageRating = COALESCE((SELECT ROUND(SUM(r.rating) / COUNT(r), 1) FROM Review r "
+      + "WHERE r.serviceProposal.id = sp.id), 0), "
+      + "sp.stars0 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating < 1), "
+      + "sp.stars1 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 1 AND r.rating < 2), "
+      + "sp.stars2 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 2 AND r.rating < 3), "
+      + "sp.stars3 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 3 AND r.rating < 4), "
+      + "sp.stars4 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 4 AND r.rating < 5), "
+      + "sp.stars5 = (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 5) "
+      + "WHERE sp.id IN :ids")
+  int recomputeRatings(@Param("ids") Collection<Long> ids);
+
+  // Rows created before the aggregate columns existed
+  @Query("SELECT sp.id FROM ServiceProposal sp WHERE sp.ratingSum IS NULL")
+  List<Long> findIdsWithoutRatingAggregates();
+
+  // Consistency check: services whose stored aggregates disagree with their reviews
+  @Query("SELECT sp.id FROM ServiceProposal sp WHERE "
+      + "COALESCE(sp.reviewCount, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id) "
+      + "OR COALESCE(sp.ratingSum, -1) <> COALESCE((SELECT SUM(r.rating) FROM Review r "
+      + "WHERE r.serviceProposal.id = sp.id), 0) "
+      + "OR COALESCE(sp.stars0, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating < 1) "
+      + "OR COALESCE(sp.stars1, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 1 AND r.rating < 2) "
+      + "OR COALESCE(sp.stars2, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 2 AND r.rating < 3) "
+      + "OR COALESCE(sp.stars3, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 3 AND r.rating < 4) "
+      + "OR COALESCE(sp.stars4, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 4 AND r.rating < 5) "
+      + "OR COALESCE(sp.stars5, -1) <> (SELECT COUNT(r) FROM Review r WHERE r.serviceProposal.id = sp.id AND r.rating >= 5)")
+  List<Long> findIdsWithStaleRatings();
 }
@@ -0,0 +1,28 @@
+package com.projectjend.demo.repository;
+
+import com.projectjend.demo.entity.ServiceVote;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
+
+public interface ServiceVoteRepository extends JpaRepository<ServiceVote, Long> {
+
+  @Query("SELECT COUNT(v) > 0 FROM ServiceVote v "
+      + "WHERE v.serviceProposal.id = :serviceId AND v.account.id = :accountId")
+  boolean existsVote(@Param("serviceId") Long serviceId, @Param("accountId") Long accountId);
+
+  // (serviceId, accountId) pairs of the whole ledger, for warming the membership filter
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+  @Query("SELECT v.serviceProposal.id, v.account.id FROM ServiceVote v")
+  Stream<Object[]> streamKeys();
+
+  @Modifying
+  @Query("DELETE FROM ServiceVote v WHERE v.serviceProposal.id = :serviceId")
+  int deleteByServiceId(@Param("serviceId") Long serviceId);
+}
@@ -0,0 +1,55 @@
+package com.projectjend.demo.reset;
+
+import com.projectjend.demo.repository.PasswordResetCodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Reset codes shared by every node behind the load balancer. Each check is
+ * one lookup on the unique email index; issuing a code is a single upsert and
+ * consuming one a single conditional DELETE, so two nodes can neither collide
+ * on the same email nor both accept the same code.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.reset-codes.store", havingValue = "database")
+public class DatabaseResetCodeStore implements ResetCodeStore {
+
+    private final PasswordResetCodeRepository repository;
+    private final long ttlMs;
+
+    public DatabaseResetCodeStore(PasswordResetCodeRepository repository,
+                                  @Value("${auth.reset-codes.ttl-ms:3600000}") long ttlMs) {
+        this.repository = repository;
+        this.ttlMs = ttlMs;
+    }
+
+    @Override
+    @Transactional
+    public void put(String email, String code) {
+        Instant now = Instant.now();
+        repository.upsert(email, code, now.plusMillis(ttlMs), now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean matches(String email, String code) {
+        return repository.existsByEmailAndCodeAndExpiresAtAfter(email, code, Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public boolean consume(String email, String code) {
+        return repository.consume(email, code, Instant.now()) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.reset-codes.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        repository.deleteExpired(Instant.now());
+    }
+}
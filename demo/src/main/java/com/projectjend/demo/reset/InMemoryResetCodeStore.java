@@ -0,0 +1,105 @@
+package com.projectjend.demo.reset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Single-node reset codes. Expiry runs on a hashed timer wheel: issuing a
+ * code drops it into the slot its deadline falls in, and each tick only
+ * visits the codes of one slot, so neither issuing nor expiring a code
+ * scans the others. Reads also check the deadline, so a code is never
+ * accepted late even if a tick runs behind.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.reset-codes.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryResetCodeStore implements ResetCodeStore {
+
+    private static final int SLOTS = 512;
+
+    private final long ttlMs;
+    private final long tickMs;
+    private final Map<String, Entry> codes = new ConcurrentHashMap<>();
+    private final Queue<Entry>[] wheel;
+    private volatile int cursor;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryResetCodeStore(@Value("${auth.reset-codes.ttl-ms:3600000}") long ttlMs,
+                                  @Value("${auth.reset-codes.tick-ms:1000}") long tickMs) {
+        this.ttlMs = ttlMs;
+        this.tickMs = Math.max(1, tickMs);
+        this.wheel = new Queue[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public void put(String email, String code) {
+        long ticks = Math.max(1, (ttlMs + tickMs - 1) / tickMs);
+        Entry entry = new Entry(email, code, System.currentTimeMillis() + ttlMs, (ticks - 1) / SLOTS);
+        // The replaced entry stays in its slot until its tick and is then skipped
+        codes.put(email, entry);
+        wheel[(int) ((cursor + ticks) % SLOTS)].add(entry);
+    }
+
+    @Override
+    public boolean matches(String email, String code) {
+        Entry entry = email != null ? codes.get(email) : null;
+        return entry != null && entry.accepts(code, System.currentTimeMillis());
+    }
+
+    @Override
+    public boolean consume(String email, String code) {
+        Entry entry = email != null ? codes.get(email) : null;
+        return entry != null && entry.accepts(code, System.currentTimeMillis()) && codes.remove(email, entry);
+    }
+
+    @Scheduled(fixedRateString = "${auth.reset-codes.tick-ms:1000}")
+    public void tick() {
+        int next = (cursor + 1) % SLOTS;
+        long now = System.currentTimeMillis();
+        for (Iterator<Entry> it = wheel[next].iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (codes.get(entry.email) != entry) {
+                // Replaced or consumed
+                it.remove();
+            } else if (entry.rounds > 0) {
+                entry.rounds--;
+            } else if (entry.expiresAt <= now) {
+                codes.remove(entry.email, entry);
+                it.remove();
+            }
+        }
+        cursor = next;
+    }
+
+    private static final class Entry {
+        final String email;
+        final byte[] code;
+        final long expiresAt;
+        // Full turns of the wheel left before the deadline's slot is the right one; only touched by tick()
+        long rounds;
+
+        Entry(String email, String code, long expiresAt, long rounds) {
+            this.email = email;
+            this.code = code.getBytes(StandardCharsets.UTF_8);
+            this.expiresAt = expiresAt;
+            this.rounds = rounds;
+        }
+
+        boolean accepts(String candidate, long now) {
+            return candidate != null && expiresAt > now
+                && MessageDigest.isEqual(code, candidate.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
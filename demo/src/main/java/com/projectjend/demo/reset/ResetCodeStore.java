@@ -0,0 +1,17 @@
+package com.projectjend.demo.reset;
+
+/**
+ * Outstanding password reset codes, one per email. Issuing a new code
+ * replaces the previous one; a code is accepted only for the email it was
+ * issued to and only until it expires.
+ */
+public interface ResetCodeStore {
+
+    void put(String email, String code);
+
+    // Non-consuming check, for validating a code before the new password is entered
+    boolean matches(String email, String code);
+
+    // Checks the code and, if it is valid, removes it so it can only be used once
+    boolean consume(String email, String code);
+}
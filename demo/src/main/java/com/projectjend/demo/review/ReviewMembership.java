@@ -0,0 +1,58 @@
+package com.projectjend.demo.review;
+
+import com.projectjend.demo.cache.BloomFilter;
+import com.projectjend.demo.repository.ReviewRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Who reviewed what. The unique (service, client email) constraint is the
+ * source of truth; a Bloom filter warmed from the reviews table answers
+ * "never reviewed" for most checks without a query, so only likely
+ * reviewers hit the database. Deleted reviews stay in the filter and are
+ * simply confirmed against the database.
+ */
+@Component
+public class ReviewMembership implements SmartInitializingSingleton {
+
+    private final ReviewRepository repository;
+    private final TransactionTemplate readOnly;
+    private final BloomFilter reviewed;
+
+    public ReviewMembership(ReviewRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${reviews.membership.expected-reviews:1000000}") long expectedReviews) {
+        this.repository = repository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.reviewed = new BloomFilter(expectedReviews, 0.01);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> keys = repository.streamKeys()) {
+                keys.forEach(key -> reviewed.put(key((Long) key[0], (String) key[1])));
+            }
+        });
+    }
+
+    public boolean hasReviewed(Long serviceId, String clientEmail) {
+        return reviewed.mightContain(key(serviceId, clientEmail))
+            && repository.existsByServiceProposalIdAndClientEmail(serviceId, clientEmail);
+    }
+
+    // Called when a review is saved; a rolled-back save only costs one confirming query later
+    public void remember(Long serviceId, String clientEmail) {
+        reviewed.put(key(serviceId, clientEmail));
+    }
+
+    private static long key(Long serviceId, String clientEmail) {
+        return BloomFilter.key(serviceId, clientEmail != null ? clientEmail.hashCode() : 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.projectjend.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-IP and per-email rate limits in front of password checks and account
+ * creation, so a credential-stuffing burst is refused before it reaches
+ * BCrypt. Buckets that have refilled are dropped by a periodic sweep.
+ */
+@Component
+public class AuthThrottle {
+
+    private final Limit perIp;
+    private final Limit perEmail;
+    private final int maxBuckets;
+    private final Counter ipThrottled;
+    private final Counter emailThrottled;
+
+    public AuthThrottle(@Value("${auth.throttle.ip.per-minute:30}") int ipPerMinute,
+                        @Value("${auth.throttle.ip.burst:10}") int ipBurst,
+                        @Value("${auth.throttle.email.per-minute:10}") int emailPerMinute,
+                        @Value("${auth.throttle.email.burst:5}") int emailBurst,
+                        @Value("${auth.throttle.max-buckets:100000}") int maxBuckets,
+                        MeterRegistry meterRegistry) {
+        this.perIp = new Limit(ipPerMinute, ipBurst);
+        this.perEmail = new Limit(emailPerMinute, emailBurst);
+        this.maxBuckets = maxBuckets;
+        this.ipThrottled = meterRegistry.counter("auth.throttled", "scope", "ip");
+        this.emailThrottled = meterRegistry.counter("auth.throttled", "scope", "email");
+    }
+
+    // The email bucket is only charged once the IP bucket has admitted the attempt
+    public boolean tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+        if (clientIp != null && !perIp.tryAcquire(clientIp, now)) {
+            ipThrottled.increment();
+            return false;
+        }
+        if (email != null && !perEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now)) {
+            emailThrottled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        perIp.buckets.values().removeIf(bucket -> bucket.isFull(now));
+        perEmail.buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private class Limit {
+        final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        final long intervalNanos;
+        final int burst;
+
+        Limit(int perMinute, int burst) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burst = Math.max(1, burst);
+        }
+
+        boolean tryAcquire(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxBuckets) {
+                    // Table full until the next sweep: the other limit still applies
+                    return true;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(intervalNanos, burst, now));
+            }
+            return bucket.tryAcquire(now);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.projectjend.demo.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+// What a verified token says about its bearer; authentication.getName() is still the email
+public record JwtPrincipal(
+    Long accountId,
+    String email,
+    List<String> roles,
+    String tokenId,
+    Instant issuedAt,
+    Instant expiresAt
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList();
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,75 +1,128 @@
 package com.projectjend.demo.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:YourSuperSecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmAndShouldBeKeptSecure}")
-    private String secret;
+    static final String ACCOUNT_ID = "uid";
+    static final String ROLES = "roles";
+    private static final List<String> DEFAULT_ROLES = List.of("USER");
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private Long expiration;
+    private final long expiration;
+    // Built once: deriving the HMAC key and the parser is not free and neither ever changes
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verified;
+    private final TokenRevocations revocations;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtil(@Value("${jwt.secret:YourSuperSecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmAndShouldBeKeptSecure}") String secret,
+                   @Value("${jwt.expiration:86400000}") long expiration, // 24 hours in milliseconds
+                   @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheSize,
+                   TokenRevocations revocations) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verified = new VerifiedTokenCache(verifiedCacheSize);
+        this.revocations = revocations;
     }
 
-    public String generateToken(String email) {
+    // Everything the filter needs to authenticate a request travels in the token, so it needs no account lookup
+    public String generateToken(Long accountId, String email) {
+        return generateToken(accountId, email, null);
+    }
+
+    // role: the account's role column, null for an ordinary user
+    public String generateToken(Long accountId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ACCOUNT_ID, accountId);
+        claims.put(ROLES, role != null ? List.of(role) : DEFAULT_ROLES);
         return createToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Boolean validateToken(String token, String email) {
+    /**
+     * Verifies the token once and returns who it belongs to, or empty if it is
+     * malformed, forged, expired or revoked. A token seen recently is answered
+     * from the verified-token cache without re-checking its signature.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        String key = VerifiedTokenCache.digest(token);
+        JwtPrincipal principal = verified.get(key, now);
+        if (principal != null) {
+            return revocations.isRevoked(principal) ? Optional.empty() : Optional.of(principal);
+        }
+
+        Claims claims;
         try {
-            final String username = extractEmail(token);
-            return (username.equals(email) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
+        principal = toPrincipal(claims);
+        if (principal == null || principal.isExpired(now)) {
+            return Optional.empty();
+        }
+        verified.put(key, principal);
+        return revocations.isRevoked(principal) ? Optional.empty() : Optional.of(principal);
     }
 
-    public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
+    // Tokens issued before the uid/roles/jti claims existed are rejected and simply need a new login
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        Number accountId = claims.get(ACCOUNT_ID, Number.class);
+        if (accountId == null || claims.getSubject() == null || claims.getId() == null
+                || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            return null;
+        }
+        List<?> roles = claims.get(ROLES, List.class);
+        return new JwtPrincipal(
+                accountId.longValue(),
+                claims.getSubject(),
+                roles != null ? roles.stream().map(String::valueOf).toList() : DEFAULT_ROLES,
+                claims.getId(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant());
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaims(token).getExpiration();
+    public Boolean validateToken(String token, String email) {
+        return verify(token).map(principal -> principal.email().equals(email)).orElse(false);
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String extractEmail(String token) {
+        return verify(token).map(JwtPrincipal::email)
+                .orElseThrow(() -> new JwtException("Invalid token"));
     }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+    public Date extractExpiration(String token) {
+        return verify(token).map(principal -> Date.from(principal.expiresAt()))
+                .orElseThrow(() -> new JwtException("Invalid token"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.projectjend.demo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single "theoretical arrival time"
+ * (GCRA): each permit pushes it forward by one refill interval, and a
+ * request is refused when that would put it more than a full burst ahead
+ * of now. One CAS per request, no refill thread.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    TokenBucket(long intervalNanos, int burst, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * burst;
+        this.arrival = new AtomicLong(now);
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    // A bucket that has refilled completely is indistinguishable from a new one
+    boolean isFull(long now) {
+        return arrival.get() <= now;
+    }
+}
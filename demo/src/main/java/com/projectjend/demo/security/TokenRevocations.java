@@ -0,0 +1,65 @@
+package com.projectjend.demo.security;
+
+import com.projectjend.demo.event.CredentialsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that must stop working before they expire. Logout revokes a single
+ * token id; a password or email change revokes everything the account was
+ * issued until then. Entries only live as long as the tokens they cover,
+ * so the set stays small without a database table.
+ */
+@Component
+public class TokenRevocations {
+
+    // token id -> when that token expires anyway
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // account id -> tokens issued before this instant are revoked
+    private final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final long tokenLifetimeMs;
+
+    public TokenRevocations(@Value("${jwt.expiration:86400000}") long tokenLifetimeMs) {
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        Instant cutoff = revokedBefore.get(principal.accountId());
+        return cutoff != null && principal.issuedAt().isBefore(cutoff);
+    }
+
+    public void revoke(JwtPrincipal principal) {
+        revokedTokens.put(principal.tokenId(), principal.expiresAt());
+    }
+
+    // Token iat has second precision: a token issued in the same second as the change stays valid,
+    // so logging in again right after a password change works
+    public void revokeAllIssuedBefore(Long accountId, Instant instant) {
+        Instant cutoff = instant.truncatedTo(ChronoUnit.SECONDS);
+        revokedBefore.merge(accountId, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(CredentialsChangedEvent event) {
+        revokeAllIssuedBefore(event.accountId(), Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        // Once a full token lifetime has passed, every token the cutoff covered has expired
+        Instant oldestLive = now.minusMillis(tokenLifetimeMs);
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(oldestLive));
+    }
+}
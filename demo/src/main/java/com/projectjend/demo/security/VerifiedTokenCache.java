@@ -0,0 +1,76 @@
+package com.projectjend.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens whose signature was already checked, keyed by their SHA-256 digest
+ * so the bearer strings themselves are never retained. Two generations keep
+ * it bounded without a lock: when the current one fills up it becomes the
+ * previous one, and anything still in use is promoted back on its next hit.
+ * Entries are never served past the token's own expiry.
+ */
+class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxEntries;
+    private volatile Map<String, JwtPrincipal> current = new ConcurrentHashMap<>();
+    private volatile Map<String, JwtPrincipal> previous = Map.of();
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    JwtPrincipal get(String key, Instant now) {
+        JwtPrincipal principal = current.get(key);
+        if (principal == null) {
+            principal = previous.get(key);
+            if (principal == null) {
+                return null;
+            }
+            if (!principal.isExpired(now)) {
+                put(key, principal);
+            }
+        }
+        if (principal.isExpired(now)) {
+            current.remove(key);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(String key, JwtPrincipal principal) {
+        Map<String, JwtPrincipal> generation = current;
+        if (generation.size() >= maxEntries) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>();
+                }
+                generation = current;
+            }
+        }
+        generation.put(key, principal);
+    }
+
+    int size() {
+        return current.size() + previous.size();
+    }
+}
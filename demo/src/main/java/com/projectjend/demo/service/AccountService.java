@@ -1,6 +1,7 @@
 package com.projectjend.demo.service;
 
 import com.projectjend.demo.dto.AccountDTO;
+import com.projectjend.demo.dto.AccountView;
 import com.projectjend.demo.dto.PasswordUpdateDTO;
 import com.projectjend.demo.entity.Account;
 
@@ -9,4 +10,5 @@ public interface AccountService {
   Account updateAccount(Long id, AccountDTO dto);
   void updatePassword(Long id, PasswordUpdateDTO dto);
   Account getByEmail(String email);
+  AccountView getView(String email);
 }
@@ -0,0 +1,27 @@
+package com.projectjend.demo.service;
+
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.FacetCounts;
+import com.projectjend.demo.dto.NearbyService;
+import com.projectjend.demo.dto.SearchHit;
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.ServiceFilter;
+import com.projectjend.demo.dto.Suggestion;
+import com.projectjend.demo.index.LeaderboardIndex;
+
+import java.util.List;
+
+// Catalog queries answered from the in-memory indexes, without touching the database
+public interface CatalogSearchService {
+    List<NearbyService> nearby(double lat, double lon, Double radiusKm, int limit, ServiceFilter filter);
+
+    List<SearchHit> search(String query, int limit);
+
+    FacetCounts facets(ServiceFilter filter);
+
+    List<Suggestion> suggest(String prefix, int limit);
+
+    // Scoped to one delegation or one category at most
+    CursorPage<ServiceCard> leaderboard(LeaderboardIndex.Board board, String delegation, String category,
+                                        String cursor, int limit);
+}
@@ -1,14 +1,19 @@
 package com.projectjend.demo.service;
 
+import com.projectjend.demo.dto.AccountReviewView;
+import com.projectjend.demo.dto.CursorPage;
 import com.projectjend.demo.dto.ReviewDTO;
+import com.projectjend.demo.dto.ReviewView;
 import com.projectjend.demo.entity.Review;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ReviewService {
     Review addReview(Long serviceProposalId, ReviewDTO reviewDTO);
-    List<Review> getReviewsByServiceId(Long serviceProposalId);
-    List<Review> getReviewsByClientEmail(String clientEmail);
+    Set<Long> importBatch(List<ReviewDTO> reviewDTOs);
+    CursorPage<ReviewView> getReviewsByServiceId(Long serviceProposalId, String cursor, int limit);
+    CursorPage<AccountReviewView> getReviewsByClientEmail(String clientEmail, String cursor, int limit);
     void deleteReview(Long reviewId);
     boolean hasUserReviewed(Long serviceProposalId, String clientEmail);
 }
\ No newline at end of file
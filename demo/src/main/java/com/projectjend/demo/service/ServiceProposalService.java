@@ -1,19 +1,24 @@
 package com.projectjend.demo.service;
 
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.ServiceDetail;
+import com.projectjend.demo.dto.ServiceFilter;
 import com.projectjend.demo.dto.ServiceProposalDTO;
-import com.projectjend.demo.dto.ReviewDTO;
-import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.dto.ServiceSummary;
+import com.projectjend.demo.dto.VoteCount;
 import com.projectjend.demo.entity.ServiceProposal;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ServiceProposalService {
-  List<ServiceProposal> findAll();
-  ServiceProposal create(ServiceProposalDTO dto, Account proposedBy);
+  CursorPage<ServiceSummary> findPage(ServiceFilter filter, String cursor, int limit);
+  ServiceDetail findDetail(Long id, String viewerEmail, int reviewLimit);
+  void exportAll(ServiceFilter filter, Consumer<ServiceSummary> sink);
+  ServiceProposal create(ServiceProposalDTO dto, AccountView proposedBy);
+  List<Long> importBatch(List<ServiceProposalDTO> dtos, AccountView proposedBy);
   ServiceProposal update(Long id, ServiceProposalDTO dto);
   void delete(Long id);
-  ServiceProposal vote(Long id);
-  
-  // ADD THIS METHOD SIGNATURE - This is what's missing!
-  ServiceProposal addReview(Long id, ReviewDTO reviewDTO);
+  VoteCount vote(Long id, Long voterId);
 }
\ No newline at end of file
@@ -1,24 +1,36 @@
 package com.projectjend.demo.service.impl;
 
+import com.projectjend.demo.cache.AccountCache;
 import com.projectjend.demo.dto.AccountDTO;
+import com.projectjend.demo.dto.AccountView;
 import com.projectjend.demo.dto.PasswordUpdateDTO;
 import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.event.AccountChangedEvent;
+import com.projectjend.demo.event.CredentialsChangedEvent;
 import com.projectjend.demo.repository.AccountRepository;
 import com.projectjend.demo.service.AccountService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class AccountServiceImpl implements AccountService {
 
   private final AccountRepository accountRepository;
   private final PasswordEncoder passwordEncoder;
+  private final ApplicationEventPublisher events;
+  private final AccountCache accountCache;
 
-  public AccountServiceImpl(AccountRepository accountRepository, PasswordEncoder passwordEncoder) {
+  public AccountServiceImpl(AccountRepository accountRepository, PasswordEncoder passwordEncoder,
+                            ApplicationEventPublisher events, AccountCache accountCache) {
     this.accountRepository = accountRepository;
     this.passwordEncoder = passwordEncoder;
+    this.events = events;
+    this.accountCache = accountCache;
   }
 
   @Override
@@ -50,10 +62,14 @@ public class AccountServiceImpl implements AccountService {
     if (!acc.getEmail().equals(dto.email()) && accountRepository.existsByEmail(dto.email())) {
       throw new IllegalArgumentException("البريد الإلكتروني مستخدم بالفعل");
     }
+    boolean credentialsChanged = !acc.getEmail().equals(dto.email());
     acc.setEmail(dto.email());
-    // update password only if non-blank (optional)
-    if (dto.password() != null && !dto.password().isBlank()) {
+    // update password only if non-blank (optional) and actually different, so a profile
+    // edit that re-sends the current password keeps the caller's tokens valid
+    if (dto.password() != null && !dto.password().isBlank()
+        && !passwordEncoder.matches(dto.password(), acc.getPassword())) {
       acc.setPassword(passwordEncoder.encode(dto.password()));
+      credentialsChanged = true;
     }
     
     // Update additional fields
@@ -63,6 +79,11 @@ public class AccountServiceImpl implements AccountService {
     acc.setDelegation(dto.delegation());
     acc.setSector(dto.sector());
     
+    if (credentialsChanged) {
+      // Outstanding tokens carry the old email or were issued against the old password
+      events.publishEvent(new CredentialsChangedEvent(acc.getId()));
+    }
+    events.publishEvent(new AccountChangedEvent(acc.getId()));
     return accountRepository.save(acc);
   }
 
@@ -76,6 +97,8 @@ public class AccountServiceImpl implements AccountService {
     }
     acc.setPassword(passwordEncoder.encode(dto.newPassword()));
     accountRepository.save(acc);
+    events.publishEvent(new CredentialsChangedEvent(acc.getId()));
+    events.publishEvent(new AccountChangedEvent(acc.getId()));
   }
 
   @Override
@@ -84,4 +107,12 @@ public class AccountServiceImpl implements AccountService {
     return accountRepository.findByEmail(email)
         .orElseThrow(() -> new IllegalArgumentException("الحساب غير موجود"));
   }
+
+  // Served from the account cache; only a miss reaches the database
+  @Override
+  @Transactional(readOnly = true)
+  public AccountView getView(String email) {
+    return accountCache.byEmail(email)
+        .orElseThrow(() -> new IllegalArgumentException("الحساب غير موجود"));
+  }
 }
\ No newline at end of file
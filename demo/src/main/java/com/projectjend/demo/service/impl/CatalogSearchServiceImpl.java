@@ -0,0 +1,102 @@
+package com.projectjend.demo.service.impl;
+
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.FacetCounts;
+import com.projectjend.demo.dto.NearbyService;
+import com.projectjend.demo.dto.SearchHit;
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.ServiceFilter;
+import com.projectjend.demo.dto.Suggestion;
+import com.projectjend.demo.index.FacetIndex;
+import com.projectjend.demo.index.GeoIndex;
+import com.projectjend.demo.index.LeaderboardIndex;
+import com.projectjend.demo.index.SearchIndex;
+import com.projectjend.demo.index.SuggestIndex;
+import com.projectjend.demo.service.CatalogSearchService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Timed("service.method")
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private static final int MAX_RESULTS = 100;
+    private static final double DEFAULT_RADIUS_KM = 50;
+    private static final double MAX_RADIUS_KM = 500;
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final GeoIndex geoIndex;
+    private final SearchIndex searchIndex;
+    private final FacetIndex facetIndex;
+    private final SuggestIndex suggestIndex;
+    private final LeaderboardIndex leaderboardIndex;
+
+    public CatalogSearchServiceImpl(GeoIndex geoIndex, SearchIndex searchIndex, FacetIndex facetIndex,
+                                    SuggestIndex suggestIndex, LeaderboardIndex leaderboardIndex) {
+        this.geoIndex = geoIndex;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.suggestIndex = suggestIndex;
+        this.leaderboardIndex = leaderboardIndex;
+    }
+
+    @Override
+    public List<NearbyService> nearby(double lat, double lon, Double radiusKm, int limit, ServiceFilter filter) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("إحداثيات غير صالحة");
+        }
+        // Without a radius this is a k-nearest query bounded by the default search area
+        double radius = radiusKm != null ? radiusKm : DEFAULT_RADIUS_KM;
+        if (radius <= 0 || radius > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("نصف القطر يجب أن يكون بين 0 و " + (int) MAX_RADIUS_KM + " كم");
+        }
+        return geoIndex.nearest(lat, lon, radius, clamp(limit), filter::matches);
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("نص البحث مطلوب");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("نص البحث طويل جداً");
+        }
+        return searchIndex.search(query, clamp(limit));
+    }
+
+    @Override
+    public FacetCounts facets(ServiceFilter filter) {
+        return facetIndex.counts(filter);
+    }
+
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.length() > MAX_QUERY_LENGTH) {
+            return List.of();
+        }
+        return suggestIndex.suggest(prefix, Math.max(1, Math.min(limit, SuggestIndex.MAX_SUGGESTIONS)));
+    }
+
+    @Override
+    public CursorPage<ServiceCard> leaderboard(LeaderboardIndex.Board board, String delegation, String category,
+                                               String cursor, int limit) {
+        ServiceFilter scope = ServiceFilter.of(delegation, null, category, null);
+        if (scope.delegation() != null && scope.category() != null) {
+            throw new IllegalArgumentException("يمكن تحديد المعتمدية أو الفئة فقط، وليس كليهما");
+        }
+        if (scope.delegation() != null) {
+            return leaderboardIndex.page(board, LeaderboardIndex.Scope.DELEGATION, scope.delegation(), cursor, clamp(limit));
+        }
+        if (scope.category() != null) {
+            return leaderboardIndex.page(board, LeaderboardIndex.Scope.CATEGORY, scope.category(), cursor, clamp(limit));
+        }
+        return leaderboardIndex.page(board, LeaderboardIndex.Scope.ALL, null, cursor, clamp(limit));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_RESULTS));
+    }
+}
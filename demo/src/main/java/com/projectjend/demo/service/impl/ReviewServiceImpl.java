@@ -1,52 +1,181 @@
 package com.projectjend.demo.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectjend.demo.cache.AccountCache;
+import com.projectjend.demo.dto.AccountReviewView;
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.PageCursor;
 import com.projectjend.demo.dto.ReviewDTO;
-import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.dto.ReviewView;
+import com.projectjend.demo.dto.ServiceCard;
 import com.projectjend.demo.entity.Review;
 import com.projectjend.demo.entity.ServiceProposal;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.index.CatalogIndexer;
+import com.projectjend.demo.journal.JournalApplier;
+import com.projectjend.demo.journal.JournalEntry;
+import com.projectjend.demo.journal.JournalHandler;
 import com.projectjend.demo.repository.AccountRepository;
 import com.projectjend.demo.repository.ReviewRepository;
 import com.projectjend.demo.repository.ServiceProposalRepository;
+import com.projectjend.demo.review.ReviewMembership;
 import com.projectjend.demo.service.ReviewService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
+@Timed("service.method")
 @Transactional
-public class ReviewServiceImpl implements ReviewService {
+public class ReviewServiceImpl implements ReviewService, JournalHandler {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String ALREADY_REVIEWED = "لقد قمت بتقييم هذه الخدمة مسبقاً";
+    // The one-review-per-client constraint on reviews; other violations are not duplicates
+    private static final String UNIQUE_REVIEW = "uk_reviews_service_client";
     
     private final ReviewRepository reviewRepository;
     private final ServiceProposalRepository serviceProposalRepository;
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final ApplicationEventPublisher events;
+    private final CatalogIndexer catalogIndexer;
+    private final ReviewMembership reviewMembership;
+    private final ObjectMapper objectMapper;
+    private final boolean journalEnabled;
+    private final ObjectProvider<JournalApplier> journal;
+    private final Counter reviewsSaved;
+    // Reviews accepted into the journal but not yet saved, as "serviceId:email"
+    private final Set<String> pendingReviews = ConcurrentHashMap.newKeySet();
     
     public ReviewServiceImpl(ReviewRepository reviewRepository, 
                            ServiceProposalRepository serviceProposalRepository,
-                           AccountRepository accountRepository) {
+                           AccountRepository accountRepository,
+                           AccountCache accountCache,
+                           ApplicationEventPublisher events,
+                           CatalogIndexer catalogIndexer,
+                           ReviewMembership reviewMembership,
+                           ObjectMapper objectMapper,
+                           @Value("${journal.enabled:false}") boolean journalEnabled,
+                           ObjectProvider<JournalApplier> journal,
+                           MeterRegistry meterRegistry) {
         this.reviewRepository = reviewRepository;
         this.serviceProposalRepository = serviceProposalRepository;
         this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.events = events;
+        this.catalogIndexer = catalogIndexer;
+        this.reviewMembership = reviewMembership;
+        this.objectMapper = objectMapper;
+        this.journalEnabled = journalEnabled;
+        this.journal = journal;
+        this.reviewsSaved = meterRegistry.counter("reviews.saved");
     }
     
     @Override
     public Review addReview(Long serviceProposalId, ReviewDTO reviewDTO) {
+        if (journalEnabled) {
+            return journalReview(serviceProposalId, reviewDTO);
+        }
+        
         // Check if user already reviewed this service
         if (hasUserReviewed(serviceProposalId, reviewDTO.clientEmail())) {
-            throw new IllegalArgumentException("لقد قمت بتقييم هذه الخدمة مسبقاً");
+            throw new IllegalArgumentException(ALREADY_REVIEWED);
         }
         
         ServiceProposal serviceProposal = serviceProposalRepository.findById(serviceProposalId)
             .orElseThrow(() -> new IllegalArgumentException("الخدمة غير موجودة"));
         
+        Review savedReview;
+        try {
+            savedReview = reviewRepository.saveAndFlush(buildReview(serviceProposal, serviceProposal.getName(),
+                accountName(reviewDTO.clientEmail()), reviewDTO));
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateReview(e)) {
+                throw e;
+            }
+            // A concurrent request for the same user won the unique constraint
+            throw new IllegalArgumentException(ALREADY_REVIEWED);
+        }
+        reviewMembership.remember(serviceProposalId, reviewDTO.clientEmail());
+        
+        // Update service proposal rating aggregates
+        applyRating(serviceProposalId, savedReview.getRating(), 1);
+        events.publishEvent(new CatalogChangedEvent(serviceProposalId));
+        reviewsSaved.increment();
+        
+        return savedReview;
+    }
+    
+    static boolean isDuplicateReview(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UNIQUE_REVIEW);
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(UNIQUE_REVIEW);
+    }
+    
+    // Appends the review to the journal; the returned review has no id until the applier saves it
+    private Review journalReview(Long serviceProposalId, ReviewDTO reviewDTO) {
+        ServiceCard card = catalogIndexer.card(serviceProposalId);
+        if (card == null) {
+            throw new IllegalArgumentException("الخدمة غير موجودة");
+        }
+        String key = serviceProposalId + ":" + reviewDTO.clientEmail();
+        if (!pendingReviews.add(key)) {
+            throw new IllegalArgumentException(ALREADY_REVIEWED);
+        }
+        try {
+            if (hasUserReviewed(serviceProposalId, reviewDTO.clientEmail())) {
+                throw new IllegalArgumentException(ALREADY_REVIEWED);
+            }
+            ReviewDTO stored = new ReviewDTO(reviewDTO.clientEmail(), reviewDTO.provider(), serviceProposalId,
+                reviewDTO.bookingStartDate(), reviewDTO.bookingEndDate(), reviewDTO.rating(), reviewDTO.comment());
+            journal.getObject().submit(JournalEntry.Type.REVIEW, objectMapper.writeValueAsBytes(stored));
+            return buildReview(null, card.name(), accountName(stored.clientEmail()), stored);
+        } catch (IOException e) {
+            pendingReviews.remove(key);
+            throw new IllegalArgumentException("تعذر تسجيل التقييم");
+        } catch (RuntimeException e) {
+            pendingReviews.remove(key);
+            throw e;
+        }
+    }
+    
+    private String accountName(String clientEmail) {
+        return accountCache.byEmail(clientEmail).map(AccountView::name).orElse(null);
+    }
+    
+    private Review buildReview(ServiceProposal serviceProposal, String serviceName, String accountName,
+                               ReviewDTO reviewDTO) {
         // Get client name from account if exists
         String clientName = reviewDTO.clientEmail();
-        Account account = accountRepository.findByEmail(reviewDTO.clientEmail()).orElse(null);
-        if (account != null && account.getName() != null) {
-            clientName = account.getName();
+        if (accountName != null) {
+            clientName = accountName;
         } else if (clientName != null && clientName.contains("@")) {
             // Use email prefix as name
             clientName = clientName.substring(0, clientName.indexOf("@"));
@@ -57,7 +186,7 @@ public class ReviewServiceImpl implements ReviewService {
         review.setServiceProposal(serviceProposal);
         review.setClientEmail(reviewDTO.clientEmail());
         review.setClientName(clientName);
-        review.setProvider(reviewDTO.provider() != null ? reviewDTO.provider() : serviceProposal.getName());
+        review.setProvider(reviewDTO.provider() != null ? reviewDTO.provider() : serviceName);
         review.setRating(reviewDTO.rating());
         review.setComment(reviewDTO.comment() != null ? reviewDTO.comment() : "");
         review.setReviewDate(LocalDate.now());
@@ -75,45 +204,118 @@ public class ReviewServiceImpl implements ReviewService {
             review.setBookingEndDate(LocalDate.now());
         }
         
-        Review savedReview = reviewRepository.save(review);
-        
-        // Update service proposal average rating
-        updateServiceRating(serviceProposal);
-        
-        System.out.println("Review saved: ID=" + savedReview.getId() + 
-                         ", Client=" + savedReview.getClientName() + 
-                         ", Rating=" + savedReview.getRating() + 
-                         ", Comment=" + savedReview.getComment());
+        return review;
+    }
+    
+    // Bulk import: rows are expected to be checked already (known service, not yet reviewed).
+    // Rating aggregates are left to the caller, which rebuilds each returned service once.
+    @Override
+    public Set<Long> importBatch(List<ReviewDTO> reviewDTOs) {
+        Map<String, String> names = new HashMap<>();
+        List<String> emails = reviewDTOs.stream().map(ReviewDTO::clientEmail).distinct().toList();
+        for (Object[] row : accountRepository.findNamesByEmailIn(emails)) {
+            names.put((String) row[0], (String) row[1]);
+        }
         
-        return savedReview;
+        Set<Long> touched = new HashSet<>();
+        List<Review> reviews = new ArrayList<>(reviewDTOs.size());
+        for (ReviewDTO reviewDTO : reviewDTOs) {
+            Long serviceId = reviewDTO.serviceProposalId();
+            ServiceCard card = catalogIndexer.card(serviceId);
+            reviews.add(buildReview(serviceProposalRepository.getReferenceById(serviceId),
+                card != null ? card.name() : null, names.get(reviewDTO.clientEmail()), reviewDTO));
+            touched.add(serviceId);
+        }
+        reviewRepository.saveAll(reviews);
+        reviewsSaved.increment(reviews.size());
+        reviewDTOs.forEach(r -> reviewMembership.remember(r.serviceProposalId(), r.clientEmail()));
+        return touched;
+    }
+    
+    @Override
+    public JournalEntry.Type type() {
+        return JournalEntry.Type.REVIEW;
+    }
+    
+    @Override
+    public void recover(JournalEntry entry) {
+        ReviewDTO reviewDTO = readJournaled(entry);
+        pendingReviews.add(reviewDTO.serviceProposalId() + ":" + reviewDTO.clientEmail());
+    }
+    
+    @Override
+    public void apply(List<JournalEntry> entries) {
+        // One catalog event covers every service the batch touched
+        Map<Long, ServiceProposal> touched = new LinkedHashMap<>();
+        for (JournalEntry entry : entries) {
+            ReviewDTO reviewDTO = readJournaled(entry);
+            if (hasUserReviewed(reviewDTO.serviceProposalId(), reviewDTO.clientEmail())) {
+                continue;
+            }
+            ServiceProposal serviceProposal = touched.get(reviewDTO.serviceProposalId());
+            if (serviceProposal == null) {
+                serviceProposal = serviceProposalRepository.findById(reviewDTO.serviceProposalId())
+                    .orElseThrow(() -> new IllegalArgumentException("الخدمة غير موجودة"));
+                touched.put(serviceProposal.getId(), serviceProposal);
+            }
+            Review saved = reviewRepository.save(buildReview(serviceProposal, serviceProposal.getName(),
+                accountName(reviewDTO.clientEmail()), reviewDTO));
+            reviewsSaved.increment();
+            reviewMembership.remember(serviceProposal.getId(), reviewDTO.clientEmail());
+            applyRating(serviceProposal.getId(), saved.getRating(), 1);
+        }
+        if (!touched.isEmpty()) {
+            events.publishEvent(new CatalogChangedEvent(List.copyOf(touched.keySet())));
+        }
+    }
+    
+    @Override
+    public void complete(List<JournalEntry> entries, boolean applied) {
+        for (JournalEntry entry : entries) {
+            ReviewDTO reviewDTO = readJournaled(entry);
+            pendingReviews.remove(reviewDTO.serviceProposalId() + ":" + reviewDTO.clientEmail());
+        }
+    }
+    
+    private ReviewDTO readJournaled(JournalEntry entry) {
+        try {
+            return objectMapper.readValue(entry.payload(), ReviewDTO.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable journaled review " + entry.sequence(), e);
+        }
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<Review> getReviewsByServiceId(Long serviceProposalId) {
-        System.out.println("=== ReviewService: Fetching reviews for service ID: " + serviceProposalId + " ===");
-        
-        List<Review> reviews = reviewRepository.findByServiceProposalIdOrderByCreatedAtDesc(serviceProposalId);
-        
-        System.out.println("ReviewService: Found " + reviews.size() + " reviews in database");
+    public CursorPage<ReviewView> getReviewsByServiceId(Long serviceProposalId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(size + 1);
         
-        // Log each review for debugging
-        for (Review review : reviews) {
-            System.out.println("Review: ID=" + review.getId() + 
-                             ", Client=" + review.getClientName() + 
-                             ", Email=" + review.getClientEmail() + 
-                             ", Rating=" + review.getRating() + 
-                             ", Comment=" + review.getComment() + 
-                             ", ReviewDate=" + review.getReviewDate());
+        List<ReviewView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findFirstViewPage(serviceProposalId, fetch);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = reviewRepository.findViewPageAfter(serviceProposalId, after.createdAt(), after.id(), fetch);
         }
-        
-        return reviews;
+        return CursorPage.of(rows, size, last -> new PageCursor(last.createdAt(), last.id()));
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<Review> getReviewsByClientEmail(String clientEmail) {
-        return reviewRepository.findByClientEmailOrderByCreatedAtDesc(clientEmail);
+    public CursorPage<AccountReviewView> getReviewsByClientEmail(String clientEmail, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Limit fetch = Limit.of(size + 1);
+        
+        List<AccountReviewView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findFirstAccountPage(clientEmail, fetch);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = reviewRepository.findAccountPageAfter(clientEmail, after.createdAt(), after.id(), fetch);
+        }
+        return CursorPage.of(rows, size, last -> new PageCursor(last.createdAt(), last.id()));
     }
     
     @Override
@@ -121,47 +323,23 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new IllegalArgumentException("التقييم غير موجود"));
         
-        ServiceProposal serviceProposal = review.getServiceProposal();
+        Long serviceProposalId = review.getServiceProposal().getId();
         reviewRepository.deleteById(reviewId);
         
         // Update service rating after deletion
-        updateServiceRating(serviceProposal);
+        applyRating(serviceProposalId, review.getRating(), -1);
+        events.publishEvent(new CatalogChangedEvent(serviceProposalId));
     }
     
     @Override
     @Transactional(readOnly = true)
     public boolean hasUserReviewed(Long serviceProposalId, String clientEmail) {
-        boolean hasReviewed = reviewRepository.existsByServiceProposalIdAndClientEmail(serviceProposalId, clientEmail);
-        System.out.println("User " + clientEmail + " has reviewed service " + serviceProposalId + ": " + hasReviewed);
-        return hasReviewed;
+        return reviewMembership.hasReviewed(serviceProposalId, clientEmail);
     }
     
-    private void updateServiceRating(ServiceProposal serviceProposal) {
-        List<Review> reviews = reviewRepository.findByServiceProposalIdOrderByCreatedAtDesc(serviceProposal.getId());
-        
-        if (reviews.isEmpty()) {
-            serviceProposal.setAverageRating(0.0);
-            serviceProposal.setReviewCount(0);
-        } else {
-            BigDecimal sum = reviews.stream()
-                .map(Review::getRating)
-                .filter(rating -> rating != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            if (reviews.size() > 0) {
-                BigDecimal average = sum.divide(BigDecimal.valueOf(reviews.size()), 1, RoundingMode.HALF_UP);
-                serviceProposal.setAverageRating(average.doubleValue());
-            } else {
-                serviceProposal.setAverageRating(0.0);
-            }
-            
-            serviceProposal.setReviewCount(reviews.size());
-        }
-        
-        serviceProposalRepository.save(serviceProposal);
-        
-        System.out.println("Updated service " + serviceProposal.getId() + 
-                         " - Average Rating: " + serviceProposal.getAverageRating() + 
-                         " - Review Count: " + serviceProposal.getReviewCount());
+    // O(1) in the number of reviews: one UPDATE moves sum, count, average and histogram
+    private void applyRating(Long serviceProposalId, BigDecimal rating, int delta) {
+        int stars = Math.max(0, Math.min(5, rating.intValue()));
+        serviceProposalRepository.applyRating(serviceProposalId, delta < 0 ? rating.negate() : rating, stars, delta);
     }
-}
\ No newline at end of file
+}
@@ -1,42 +1,130 @@
 package com.projectjend.demo.service.impl;
 
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.dto.CursorPage;
+import com.projectjend.demo.dto.PageCursor;
+import com.projectjend.demo.dto.RatingSummary;
+import com.projectjend.demo.dto.ReviewView;
+import com.projectjend.demo.dto.ServiceDetail;
+import com.projectjend.demo.dto.ServiceFilter;
 import com.projectjend.demo.dto.ServiceProposalDTO;
-import com.projectjend.demo.dto.ReviewDTO;
-import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.dto.ServiceSummary;
+import com.projectjend.demo.dto.VoteCount;
 import com.projectjend.demo.entity.ServiceProposal;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.repository.AccountRepository;
 import com.projectjend.demo.repository.ServiceProposalRepository;
+import com.projectjend.demo.repository.ServiceVoteRepository;
+import com.projectjend.demo.service.ReviewService;
 import com.projectjend.demo.service.ServiceProposalService;
+import com.projectjend.demo.vote.VoteAccumulator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class ServiceProposalServiceImpl implements ServiceProposalService {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final ServiceProposalRepository repository;
+  private final ServiceVoteRepository voteRepository;
+  private final ApplicationEventPublisher events;
+  private final VoteAccumulator voteAccumulator;
+  private final ReviewService reviewService;
+  private final AccountRepository accountRepository;
 
-  public ServiceProposalServiceImpl(ServiceProposalRepository repository) {
+  public ServiceProposalServiceImpl(ServiceProposalRepository repository, ServiceVoteRepository voteRepository,
+                                    ApplicationEventPublisher events, VoteAccumulator voteAccumulator,
+                                    ReviewService reviewService, AccountRepository accountRepository) {
     this.repository = repository;
+    this.voteRepository = voteRepository;
+    this.events = events;
+    this.voteAccumulator = voteAccumulator;
+    this.reviewService = reviewService;
+    this.accountRepository = accountRepository;
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<ServiceProposal> findAll() {
-    return repository.findAll();
+  public CursorPage<ServiceSummary> findPage(ServiceFilter filter, String cursor, int limit) {
+    int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // Fetch one extra row to know whether another page exists
+    Limit fetch = Limit.of(size + 1);
+
+    List<ServiceSummary> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = repository.findFirstPage(filter.delegation(), filter.sector(),
+          filter.category(), filter.institution(), fetch);
+    } else {
+      PageCursor after = PageCursor.decode(cursor);
+      rows = repository.findPageAfter(filter.delegation(), filter.sector(),
+          filter.category(), filter.institution(), after.createdAt(), after.id(), fetch);
+    }
+    return CursorPage.of(rows, size, last -> new PageCursor(last.createdAt(), last.id()));
   }
 
   @Override
-  public ServiceProposal create(ServiceProposalDTO dto, Account proposedBy) {
+  @Transactional(readOnly = true)
+  public ServiceDetail findDetail(Long id, String viewerEmail, int reviewLimit) {
+    // Service row and its stored rating aggregates in one query, then the first keyset page of reviews
+    List<Object[]> rows = repository.findDetailById(id);
+    if (rows.isEmpty()) {
+      throw new IllegalArgumentException("الخدمة غير موجودة");
+    }
+    ServiceSummary service = (ServiceSummary) rows.get(0)[0];
+    RatingSummary rating = (RatingSummary) rows.get(0)[1];
+    CursorPage<ReviewView> reviews = reviewService.getReviewsByServiceId(id, null, reviewLimit);
+    // Answered from the in-memory membership filter unless the caller probably reviewed it
+    Boolean hasReviewed = viewerEmail != null ? reviewService.hasUserReviewed(id, viewerEmail) : null;
+    return new ServiceDetail(service, rating, reviews, hasReviewed);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportAll(ServiceFilter filter, Consumer<ServiceSummary> sink) {
+    // Projected rows are never attached to the persistence context, so heap stays flat
+    try (Stream<ServiceSummary> rows = repository.streamAll(filter.delegation(), filter.sector(),
+        filter.category(), filter.institution())) {
+      rows.forEach(sink);
+    }
+  }
+
+  @Override
+  public ServiceProposal create(ServiceProposalDTO dto, AccountView proposedBy) {
+    ServiceProposal saved = repository.save(toEntity(dto, proposedBy));
+    events.publishEvent(new CatalogChangedEvent(saved.getId()));
+    return saved;
+  }
+
+  @Override
+  public List<Long> importBatch(List<ServiceProposalDTO> dtos, AccountView proposedBy) {
+    // Ids come from the pooled sequence, so the inserts go out as JDBC batches at commit
+    List<ServiceProposal> saved = repository.saveAll(dtos.stream().map(dto -> toEntity(dto, proposedBy)).toList());
+    List<Long> ids = saved.stream().map(ServiceProposal::getId).toList();
+    events.publishEvent(new CatalogChangedEvent(ids));
+    return ids;
+  }
+
+  private ServiceProposal toEntity(ServiceProposalDTO dto, AccountView proposedBy) {
     ServiceProposal sp = new ServiceProposal();
     sp.setName(dto.name());
     sp.setDescription(dto.description());
     sp.setLocation(dto.location());
-    sp.setProposedBy(proposedBy);
+    // Only the foreign key is written, so an unloaded reference is enough
+    sp.setProposedBy(accountRepository.getReferenceById(proposedBy.id()));
     
     // Set additional fields for service product
-    sp.setOwnerEmail(dto.ownerEmail() != null ? dto.ownerEmail() : proposedBy.getEmail());
+    sp.setOwnerEmail(dto.ownerEmail() != null ? dto.ownerEmail() : proposedBy.email());
     sp.setEndDate(dto.endDate());
     sp.setReservationLink(dto.reservationLink());
     sp.setDelegation(dto.delegation());
@@ -44,8 +132,7 @@ public class ServiceProposalServiceImpl implements ServiceProposalService {
     sp.setProvider(dto.provider());
     sp.setInstitution(dto.institution());
     sp.setCategory(dto.category());
-    
-    return repository.save(sp);
+    return sp;
   }
 
   @Override
@@ -66,7 +153,9 @@ public class ServiceProposalServiceImpl implements ServiceProposalService {
     sp.setInstitution(dto.institution());
     sp.setCategory(dto.category());
     
-    return repository.save(sp);
+    ServiceProposal saved = repository.save(sp);
+    events.publishEvent(new CatalogChangedEvent(id));
+    return saved;
   }
 
   @Override
@@ -74,31 +163,15 @@ public class ServiceProposalServiceImpl implements ServiceProposalService {
     if (!repository.existsById(id)) {
       throw new IllegalArgumentException("الخدمة غير موجودة");
     }
+    voteRepository.deleteByServiceId(id);
     repository.deleteById(id);
+    events.publishEvent(new CatalogChangedEvent(id));
   }
 
   @Override
-  public ServiceProposal vote(Long id) {
-    ServiceProposal sp = repository.findById(id)
-        .orElseThrow(() -> new IllegalArgumentException("الخدمة غير موجودة"));
-    sp.setVotes(sp.getVotes() + 1);
-    return repository.save(sp);
-  }
-  
-  @Override  // ADD THIS ANNOTATION
-  public ServiceProposal addReview(Long id, ReviewDTO reviewDTO) {
-    ServiceProposal sp = repository.findById(id)
-        .orElseThrow(() -> new IllegalArgumentException("الخدمة غير موجودة"));
-    
-    // Update average rating
-    Integer currentCount = sp.getReviewCount() != null ? sp.getReviewCount() : 0;
-    Double currentAvg = sp.getAverageRating() != null ? sp.getAverageRating() : 0.0;
-    
-    Double newAvg = ((currentAvg * currentCount) + reviewDTO.rating().doubleValue()) / (currentCount + 1);
-    
-    sp.setAverageRating(newAvg);
-    sp.setReviewCount(currentCount + 1);
-    
-    return repository.save(sp);
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public VoteCount vote(Long id, Long voterId) {
+    // Counted in memory and flushed in batches (or synchronously, per votes.durability)
+    return voteAccumulator.vote(id, voterId);
   }
 }
\ No newline at end of file
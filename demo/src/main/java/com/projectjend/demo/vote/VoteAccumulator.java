@@ -0,0 +1,219 @@
+package com.projectjend.demo.vote;
+
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.dto.VoteCount;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.index.CatalogIndexer;
+import com.projectjend.demo.journal.JournalApplier;
+import com.projectjend.demo.journal.JournalEntry;
+import com.projectjend.demo.journal.JournalHandler;
+import com.projectjend.demo.repository.ServiceProposalRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts votes without touching the service row on the request path.
+ *
+ * <p>With {@code votes.durability=batched} (the default) a vote is a
+ * {@link LongAdder} increment; deltas are written every
+ * {@code votes.flush-interval-ms} as {@code votes = votes + :delta} in one
+ * transaction, and on shutdown. Votes accepted since the last flush are lost
+ * if the process dies. With {@code votes.durability=sync} every vote is the
+ * same atomic update, committed before the response. With
+ * {@code votes.durability=journal} (requires {@code journal.enabled=true}) a vote
+ * is appended to the event journal and applied by the {@link JournalApplier},
+ * surviving a crash.
+ *
+ * <p>The returned total is the indexed (flushed) count plus everything pending,
+ * so callers always see their own vote. Each account votes once per service,
+ * enforced by the {@link VoteLedger}.
+ */
+@Component
+public class VoteAccumulator implements JournalHandler {
+
+    public enum Durability {
+        SYNC, BATCHED, JOURNAL
+    }
+
+    private static final String ALREADY_VOTED = "لقد قمت بالتصويت لهذه الخدمة من قبل";
+
+    private static final Logger log = LoggerFactory.getLogger(VoteAccumulator.class);
+
+    private final ServiceProposalRepository repository;
+    private final VoteLedger ledger;
+    private final CatalogIndexer catalogIndexer;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transaction;
+    private final Durability durability;
+    private final ObjectProvider<JournalApplier> journal;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Deltas taken by the running flush, counted until the indexer has seen the new totals
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    public VoteAccumulator(ServiceProposalRepository repository,
+                           VoteLedger ledger,
+                           CatalogIndexer catalogIndexer,
+                           ApplicationEventPublisher events,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${votes.durability:batched}") Durability durability,
+                           @Value("${journal.enabled:false}") boolean journalEnabled,
+                           ObjectProvider<JournalApplier> journal) {
+        if (durability == Durability.JOURNAL && !journalEnabled) {
+            throw new IllegalStateException("votes.durability=journal requires journal.enabled=true");
+        }
+        this.repository = repository;
+        this.ledger = ledger;
+        this.catalogIndexer = catalogIndexer;
+        this.events = events;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.durability = durability;
+        this.journal = journal;
+    }
+
+    public VoteCount vote(Long serviceId, Long accountId) {
+        ServiceCard card = catalogIndexer.card(serviceId);
+        if (card == null) {
+            throw new IllegalArgumentException("الخدمة غير موجودة");
+        }
+        if (durability == Durability.JOURNAL) {
+            return journalVote(card, accountId);
+        }
+        if (ledger.hasVoted(serviceId, accountId)) {
+            throw new IllegalStateException(ALREADY_VOTED);
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                ledger.record(serviceId, accountId);
+                if (durability == Durability.SYNC) {
+                    repository.addVotes(serviceId, 1);
+                    events.publishEvent(new CatalogChangedEvent(serviceId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException(ALREADY_VOTED);
+        }
+        ledger.remember(serviceId, accountId);
+        if (durability == Durability.BATCHED) {
+            pending.computeIfAbsent(serviceId, id -> new LongAdder()).increment();
+        }
+        return new VoteCount(card.id(), card.name(), count(serviceId));
+    }
+
+    private VoteCount journalVote(ServiceCard card, Long accountId) {
+        if (!ledger.claim(card.id(), accountId)) {
+            throw new IllegalStateException(ALREADY_VOTED);
+        }
+        try {
+            journal.getObject().submit(JournalEntry.Type.VOTE,
+                ByteBuffer.allocate(2 * Long.BYTES).putLong(card.id()).putLong(accountId).array());
+        } catch (RuntimeException e) {
+            ledger.release(card.id(), accountId, false);
+            throw e;
+        }
+        pending.computeIfAbsent(card.id(), id -> new LongAdder()).increment();
+        return new VoteCount(card.id(), card.name(), count(card.id()));
+    }
+
+    public long count(Long serviceId) {
+        ServiceCard card = catalogIndexer.card(serviceId);
+        long flushed = card != null ? card.votes() : 0;
+        LongAdder adder = pending.get(serviceId);
+        return flushed + inFlight.getOrDefault(serviceId, 0L) + (adder != null ? adder.sum() : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${votes.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (durability == Durability.JOURNAL) {
+            // Journaled votes are written by the applier
+            return;
+        }
+        // Sorted ids keep row locks in a stable order against concurrent writers
+        Map<Long, Long> batch = new TreeMap<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.put(id, delta);
+                inFlight.merge(id, delta, Long::sum);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                batch.forEach((id, delta) -> repository.addVotes(id, Math.toIntExact(delta)));
+                // One event for the whole flush, so listeners refresh the batch in one pass
+                events.publishEvent(new CatalogChangedEvent(List.copyOf(batch.keySet())));
+            });
+        } catch (RuntimeException e) {
+            // Keep the votes for the next attempt rather than dropping them
+            log.warn("Vote flush failed, {} services retried on next run", batch.size(), e);
+            batch.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+        } finally {
+            batch.forEach((id, delta) -> inFlight.computeIfPresent(id, (k, v) -> v - delta == 0 ? null : v - delta));
+        }
+    }
+
+    @Override
+    public JournalEntry.Type type() {
+        return JournalEntry.Type.VOTE;
+    }
+
+    @Override
+    public void recover(JournalEntry entry) {
+        ByteBuffer vote = ByteBuffer.wrap(entry.payload());
+        long serviceId = vote.getLong();
+        ledger.reclaim(serviceId, vote.getLong());
+        pending.computeIfAbsent(serviceId, id -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void apply(List<JournalEntry> entries) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (JournalEntry entry : entries) {
+            ByteBuffer vote = ByteBuffer.wrap(entry.payload());
+            long serviceId = vote.getLong();
+            ledger.record(serviceId, vote.getLong());
+            deltas.merge(serviceId, 1, Integer::sum);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.forEach(repository::addVotes);
+        events.publishEvent(new CatalogChangedEvent(List.copyOf(deltas.keySet())));
+    }
+
+    @Override
+    public void complete(List<JournalEntry> entries, boolean applied) {
+        for (JournalEntry entry : entries) {
+            ByteBuffer vote = ByteBuffer.wrap(entry.payload());
+            long serviceId = vote.getLong();
+            ledger.release(serviceId, vote.getLong(), applied);
+            pending.computeIfAbsent(serviceId, id -> new LongAdder()).decrement();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,97 @@
+package com.projectjend.demo.vote;
+
+import com.projectjend.demo.cache.BloomFilter;
+import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.entity.ServiceProposal;
+import com.projectjend.demo.entity.ServiceVote;
+import com.projectjend.demo.repository.ServiceVoteRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Who voted for what. The unique (service, account) constraint is the source
+ * of truth; a Bloom filter warmed from the ledger answers "never voted" for
+ * most requests without a query, so only likely duplicates hit the database.
+ */
+@Component
+public class VoteLedger implements SmartInitializingSingleton {
+
+    private final ServiceVoteRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+    private final BloomFilter voted;
+    // Votes accepted into the journal but not yet written to the ledger
+    private final Set<String> claims = ConcurrentHashMap.newKeySet();
+
+    public VoteLedger(ServiceVoteRepository repository,
+                      EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${votes.ledger.expected-votes:1000000}") long expectedVotes) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.voted = new BloomFilter(expectedVotes, 0.01);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> keys = repository.streamKeys()) {
+                keys.forEach(key -> voted.put(BloomFilter.key((Long) key[0], (Long) key[1])));
+            }
+        });
+    }
+
+    public boolean hasVoted(Long serviceId, Long accountId) {
+        return voted.mightContain(BloomFilter.key(serviceId, accountId))
+            && repository.existsVote(serviceId, accountId);
+    }
+
+    // Must run inside the caller's transaction; a concurrent duplicate fails on the unique constraint
+    public void record(Long serviceId, Long accountId) {
+        ServiceVote vote = new ServiceVote();
+        vote.setServiceProposal(entityManager.getReference(ServiceProposal.class, serviceId));
+        vote.setAccount(entityManager.getReference(Account.class, accountId));
+        repository.saveAndFlush(vote);
+    }
+
+    // Called once the vote is committed
+    public void remember(Long serviceId, Long accountId) {
+        voted.put(BloomFilter.key(serviceId, accountId));
+    }
+
+    // Reserves a vote that will be recorded later; false if the account already voted
+    public boolean claim(Long serviceId, Long accountId) {
+        String key = serviceId + ":" + accountId;
+        if (!claims.add(key)) {
+            return false;
+        }
+        if (hasVoted(serviceId, accountId)) {
+            claims.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    // Ends a claim; a recorded vote is remembered first so it is never unguarded
+    public void release(Long serviceId, Long accountId, boolean recorded) {
+        if (recorded) {
+            remember(serviceId, accountId);
+        }
+        claims.remove(serviceId + ":" + accountId);
+    }
+
+    // Restores the claim of a journaled vote found at startup
+    public void reclaim(Long serviceId, Long accountId) {
+        claims.add(serviceId + ":" + accountId);
+    }
+}
@@ -0,0 +1,82 @@
+package com.projectjend.demo.cache;
+
+import com.projectjend.demo.dto.AccountView;
+import com.projectjend.demo.event.AccountChangedEvent;
+import com.projectjend.demo.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountCacheTest {
+
+    private final AccountRepository repository = mock(AccountRepository.class);
+    private final AccountCache cache = new AccountCache(repository, 100);
+
+    @Test
+    void servesRepeatedLookupsByEmailAndIdFromOneLoad() {
+        AccountView view = view(1L, "a@example.com", "Amal");
+        when(repository.findViewByEmail("a@example.com")).thenReturn(Optional.of(view));
+
+        assertThat(cache.byEmail("a@example.com")).contains(view);
+        assertThat(cache.byEmail("a@example.com")).contains(view);
+        assertThat(cache.byId(1L)).contains(view);
+
+        verify(repository, times(1)).findViewByEmail("a@example.com");
+        verify(repository, never()).findViewById(1L);
+    }
+
+    @Test
+    void reloadsAfterTheAccountChanged() {
+        AccountView before = view(1L, "a@example.com", "Amal");
+        AccountView after = view(1L, "new@example.com", "Amal B.");
+        when(repository.findViewById(1L)).thenReturn(Optional.of(before), Optional.of(after));
+        cache.byId(1L);
+
+        cache.onAccountChanged(new AccountChangedEvent(1L));
+
+        assertThat(cache.byId(1L)).contains(after);
+        // The old email no longer resolves from the cache
+        when(repository.findViewByEmail("a@example.com")).thenReturn(Optional.empty());
+        assertThat(cache.byEmail("a@example.com")).isEmpty();
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedWithAChange() {
+        AccountView stale = view(1L, "a@example.com", "Amal");
+        AccountView fresh = view(1L, "a@example.com", "Amal B.");
+        when(repository.findViewByEmail("a@example.com"))
+            .thenAnswer(invocation -> {
+                cache.onAccountChanged(new AccountChangedEvent(1L));
+                return Optional.of(stale);
+            })
+            .thenReturn(Optional.of(fresh));
+
+        assertThat(cache.byEmail("a@example.com")).contains(stale);
+        assertThat(cache.byEmail("a@example.com")).contains(fresh);
+        verify(repository, times(2)).findViewByEmail("a@example.com");
+    }
+
+    @Test
+    void doesNotCacheMissingAccounts() {
+        when(repository.findViewByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertThat(cache.byEmail("nobody@example.com")).isEmpty();
+        assertThat(cache.byEmail("nobody@example.com")).isEmpty();
+        assertThat(cache.byEmail(null)).isEmpty();
+
+        verify(repository, times(2)).findViewByEmail("nobody@example.com");
+    }
+
+    private static AccountView view(Long id, String email, String name) {
+        Instant now = Instant.now();
+        return new AccountView(id, name, email, null, null, null, null, null, null, now, now);
+    }
+}
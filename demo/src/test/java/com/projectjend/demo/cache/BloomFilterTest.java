@@ -0,0 +1,59 @@
+package com.projectjend.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAKeyThatWasPut() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(BloomFilter.key(id, id * 7));
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(BloomFilter.key(id, id * 7))).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        long falsePositives = LongStream.rangeClosed(1_000_001, 1_100_000).filter(filter::mightContain).count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void distinguishesTheOrderOfCombinedIds() {
+        BloomFilter filter = new BloomFilter(1_000, 0.001);
+        filter.put(BloomFilter.key(1, 2));
+
+        assertThat(filter.mightContain(BloomFilter.key(1, 2))).isTrue();
+        assertThat(filter.mightContain(BloomFilter.key(2, 1))).isFalse();
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            long offset = t * 10_000L;
+            writers[t] = new Thread(() -> LongStream.range(offset, offset + 10_000).forEach(filter::put));
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(LongStream.range(0, 40_000).allMatch(filter::mightContain)).isTrue();
+    }
+}
@@ -0,0 +1,124 @@
+package com.projectjend.demo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyCacheTest {
+
+    private final ResponseBodyCache cache = new ResponseBodyCache(new ObjectMapper(), new CatalogSnapshot());
+
+    @AfterEach
+    void shutdown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void servesRepeatedReadsFromOneBuild() {
+        AtomicInteger builds = new AtomicInteger();
+        CachedBody first = cache.get("page|a", () -> List.of(builds.incrementAndGet()));
+        CachedBody second = cache.get("page|a", () -> List.of(builds.incrementAndGet()));
+
+        assertThat(builds).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json())).isEqualTo("[1]");
+    }
+
+    @Test
+    void keepsHotKeysCachedWhenManyNewKeysArrive() {
+        AtomicInteger hotBuilds = new AtomicInteger();
+        for (int i = 0; i < 5000; i++) {
+            cache.get(ResponseBodyCache.reviewsKey(1L, "cursor-" + i, 20), () -> List.of());
+            cache.get(ResponseBodyCache.catalogPageKey("all", null, 20), () -> List.of(hotBuilds.incrementAndGet()));
+        }
+
+        assertThat(hotBuilds).hasValue(1);
+    }
+
+    @Test
+    void servesThePreviousBodyWhileARebuildRuns() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger builds = new AtomicInteger();
+        CachedBody first = cache.get("page|a", () -> {
+            if (builds.incrementAndGet() > 1) {
+                rebuildStarted.countDown();
+                await(release);
+            }
+            return List.of(builds.get());
+        });
+
+        cache.onCatalogChanged(new CatalogChangedEvent(1L));
+        assertThat(rebuildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.get("page|a", List::of)).isSameAs(first);
+
+        release.countDown();
+        assertThat(waitForJson("[2]")).isTrue();
+    }
+
+    @Test
+    void aChangeDuringARebuildQueuesAnotherInsteadOfDroppingTheEntry() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger builds = new AtomicInteger();
+        cache.get("page|a", () -> {
+            int build = builds.incrementAndGet();
+            if (build == 2) {
+                rebuildStarted.countDown();
+                await(release);
+            }
+            return List.of(build);
+        });
+
+        cache.onCatalogChanged(new CatalogChangedEvent(1L));
+        assertThat(rebuildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.onCatalogChanged(new CatalogChangedEvent(2L));
+        release.countDown();
+
+        assertThat(waitForJson("[3]")).isTrue();
+        assertThat(builds).hasValue(3);
+    }
+
+    @Test
+    void cachesNewKeysOnceFull() {
+        for (int i = 0; i < 2000; i++) {
+            cache.get("page|" + i, List::of);
+        }
+        AtomicInteger builds = new AtomicInteger();
+        cache.get("page|new", () -> List.of(builds.incrementAndGet()));
+        cache.get("page|new", () -> List.of(builds.incrementAndGet()));
+
+        assertThat(builds).hasValue(1);
+    }
+
+    // Reads go through a loader that would fail the test if the entry had been dropped
+    private boolean waitForJson(String json) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            CachedBody body = cache.get("page|a", () -> {
+                throw new AssertionError("entry was dropped");
+            });
+            if (new String(body.json()).equals(json)) {
+                return true;
+            }
+            Thread.sleep(5);
+        }
+        return false;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.projectjend.demo.controller;
+
+import com.projectjend.demo.entity.Account;
+import com.projectjend.demo.reset.InMemoryResetCodeStore;
+import com.projectjend.demo.security.AuthThrottle;
+import com.projectjend.demo.security.JwtUtil;
+import com.projectjend.demo.security.TokenRevocations;
+import com.projectjend.demo.service.AccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthControllerTest {
+
+    private final AccountService accountService = mock(AccountService.class);
+    private final InMemoryResetCodeStore resetCodes = new InMemoryResetCodeStore(3_600_000, 1000);
+    private final AuthController controller = new AuthController(accountService, mock(AuthenticationManager.class),
+        mock(JwtUtil.class), mock(TokenRevocations.class), mock(AuthThrottle.class), mock(PasswordEncoder.class),
+        resetCodes, new SimpleMeterRegistry());
+
+    @Test
+    void busyHashingPoolAnswers503AndKeepsTheResetCode() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setName("Amal");
+        account.setEmail("a@example.com");
+        when(accountService.getByEmail("a@example.com")).thenReturn(account);
+        when(accountService.updateAccount(eq(1L), any())).thenThrow(new RejectedExecutionException("queue full"));
+        resetCodes.put("a@example.com", "123456");
+
+        ResponseEntity<?> response = controller.resetPassword(
+            Map.of("email", "a@example.com", "resetCode", "123456", "newPassword", "new-secret"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(resetCodes.matches("a@example.com", "123456")).isTrue();
+    }
+
+    @Test
+    void aUsedCodeCannotResetTwice() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setEmail("a@example.com");
+        when(accountService.getByEmail("a@example.com")).thenReturn(account);
+        resetCodes.put("a@example.com", "123456");
+        Map<String, String> request = Map.of("email", "a@example.com", "resetCode", "123456", "newPassword", "new-secret");
+
+        assertThat(controller.resetPassword(request).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.resetPassword(request).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,42 @@
+package com.projectjend.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void refusesAnonymousImports() throws Exception {
+        mockMvc.perform(post("/api/import/reviews").contentType(MediaType.APPLICATION_NDJSON).content(""))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void refusesOrdinaryUsers() throws Exception {
+        mockMvc.perform(post("/api/import/reviews").contentType(MediaType.APPLICATION_NDJSON).content(""))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/import/services").contentType(MediaType.APPLICATION_NDJSON).content(""))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "IMPORTER")
+    void letsImportersThrough() throws Exception {
+        mockMvc.perform(post("/api/import/reviews").contentType(MediaType.APPLICATION_NDJSON).content(""))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,22 @@
+package com.projectjend.demo.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceProposalControllerTest {
+
+    @Test
+    void sendsGzipOnlyWhenTheClientAcceptsIt() {
+        assertThat(ServiceProposalController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ServiceProposalController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ServiceProposalController.acceptsGzip("*")).isTrue();
+
+        assertThat(ServiceProposalController.acceptsGzip(null)).isFalse();
+        assertThat(ServiceProposalController.acceptsGzip("identity")).isFalse();
+        assertThat(ServiceProposalController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ServiceProposalController.acceptsGzip("gzip; q=0.0, br")).isFalse();
+        assertThat(ServiceProposalController.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ServiceProposalController.acceptsGzip("br, *;q=0")).isFalse();
+    }
+}
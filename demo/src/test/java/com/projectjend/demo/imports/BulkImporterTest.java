@@ -0,0 +1,62 @@
+package com.projectjend.demo.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.index.CatalogIndexer;
+import com.projectjend.demo.rating.RatingAggregateVerifier;
+import com.projectjend.demo.review.ReviewMembership;
+import com.projectjend.demo.service.ReviewService;
+import com.projectjend.demo.service.ServiceProposalService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkImporterTest {
+
+    private final ReviewService reviewService = mock(ReviewService.class);
+    private final CatalogIndexer catalogIndexer = mock(CatalogIndexer.class);
+    private final RatingAggregateVerifier ratings = mock(RatingAggregateVerifier.class);
+    private final BulkImporter importer = new BulkImporter(mock(ServiceProposalService.class), reviewService,
+        mock(ReviewMembership.class), catalogIndexer, ratings, new ObjectMapper().registerModule(new JavaTimeModule()),
+        Validation.buildDefaultValidatorFactory().getValidator(), 1);
+
+    @Test
+    void rebuildsRatingsOfCommittedBatchesWhenTheUploadAborts() {
+        when(catalogIndexer.card(7L)).thenReturn(
+            new ServiceCard(7L, "service", null, null, null, null, null, null, 0, null, 0));
+        when(reviewService.importBatch(anyList())).thenReturn(Set.of(7L));
+        String rows = """
+            {"clientEmail":"a@example.com","provider":"p","serviceProposalId":7,"rating":4}
+            {"clientEmail":"b@example.com","provider":"p","serviceProposalId":7,"rating":5}
+            """;
+        InputStream aborted = new SequenceInputStream(
+            new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)),
+            new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("connection reset");
+                }
+            });
+
+        assertThatThrownBy(() -> importer.importReviews(aborted, false)).isInstanceOf(UncheckedIOException.class);
+
+        verify(reviewService, times(2)).importBatch(anyList());
+        verify(ratings).rebuild(List.of(7L));
+    }
+}
@@ -0,0 +1,122 @@
+package com.projectjend.demo.index;
+
+import com.projectjend.demo.dto.NearbyService;
+import com.projectjend.demo.dto.ServiceCard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoIndexTest {
+
+    private final GeoIndex index = new GeoIndex();
+    private final List<ServiceCard> cards = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void returnsOnlyServicesWithinTheRadiusNearestFirst() {
+        long near = add(36.80, 10.18);
+        long middle = add(36.80, 10.60);
+        add(36.80, 11.50);
+
+        List<NearbyService> found = index.nearest(36.80, 10.10, 50, 10, card -> true);
+
+        assertThat(ids(found)).containsExactly(near, middle);
+        assertThat(found.get(0).distanceKm()).isLessThan(found.get(1).distanceKm());
+        assertThat(found.get(1).distanceKm()).isLessThan(50);
+    }
+
+    @Test
+    void stopsAtTheLimitAndAppliesTheFilter() {
+        long first = add(0, 0.01);
+        long second = add(0, 0.02);
+        long third = add(0, 0.03);
+
+        assertThat(ids(index.nearest(0, 0, 100, 2, card -> true))).containsExactly(first, second);
+        assertThat(ids(index.nearest(0, 0, 100, 2, card -> card.id() != first))).containsExactly(second, third);
+    }
+
+    @Test
+    void findsServicesAcrossTheAntimeridian() {
+        long east = add(-17.0, 179.95);
+        long west = add(-17.0, -179.95);
+        addFiller(20_000);
+
+        assertThat(ids(index.nearest(-17.0, 179.99, 20, 10, card -> true))).containsExactly(east, west);
+        assertThat(ids(index.nearest(-17.0, -180, 20, 10, card -> true))).containsExactlyInAnyOrder(east, west);
+    }
+
+    @Test
+    void answersHighLatitudeQueriesWithinTheRadius() {
+        long here = add(85, 0);
+        long east = add(85, 10);
+        long north = add(86, 0);
+        long acrossThePole = add(89.5, 180);
+        add(80, 0);
+
+        List<NearbyService> found = index.nearest(89.5, 0, 150, 10, card -> true);
+        assertThat(ids(found)).containsExactly(acrossThePole);
+        assertThat(found.get(0).distanceKm()).isBetween(100.0, 120.0);
+
+        assertThat(ids(index.nearest(85, 0, 500, 10, card -> true))).containsExactly(here, east, north);
+    }
+
+    @Test
+    void matchesABruteForceScanWhetherItWalksCellsOrScans() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            add(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+        }
+        double[][] queries = {{0, 0}, {36.8, 10.2}, {-33.9, 151.2}, {64.1, -21.9}, {0, 179.9}, {88, 45}, {-89, -120}};
+
+        // 300 km walks the cells except near the poles; 1500 km is cheaper as a scan everywhere
+        for (double radius : new double[] {300, 1500}) {
+            for (double[] query : queries) {
+                List<NearbyService> found = index.nearest(query[0], query[1], radius, 5_000, card -> true);
+                assertThat(found).allSatisfy(service -> assertThat(service.distanceKm()).isLessThanOrEqualTo(radius));
+                assertThat(found).hasSize((int) countWithin(query[0], query[1], radius));
+                assertThat(found).isSortedAccordingTo(Comparator.comparingDouble(NearbyService::distanceKm));
+            }
+        }
+    }
+
+    private long countWithin(double lat, double lon, double km) {
+        return cards.stream()
+            .map(card -> GeoIndex.parse(card.location()))
+            .filter(point -> haversineKm(lat, lon, point[0], point[1]) <= km)
+            .count();
+    }
+
+    private long add(double lat, double lon) {
+        long id = nextId++;
+        ServiceCard card = new ServiceCard(id, "service " + id, lat + "," + lon,
+            null, null, null, null, null, 0, null, 0);
+        cards.add(card);
+        index.put(card, null, null);
+        return id;
+    }
+
+    // Far-away points, so the catalog is large enough for the cell walk to be used
+    private void addFiller(int count) {
+        for (int i = 0; i < count; i++) {
+            add(40 + (i % 100) * 0.1, -100 + (i / 100) * 0.1);
+        }
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static List<Long> ids(List<NearbyService> found) {
+        return found.stream().map(service -> service.service().id()).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.projectjend.demo.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void normalizeStripsDiacriticsAndTatweelAndFoldsLetterVariants() {
+        assertThat(TextAnalyzer.normalize("مَدْرَسَة")).isEqualTo("مدرسه");
+        assertThat(TextAnalyzer.normalize("مـــدرسة")).isEqualTo("مدرسه");
+        assertThat(TextAnalyzer.normalize("أحمد إبراهيم آمنة")).isEqualTo("احمد ابراهيم امنه");
+        assertThat(TextAnalyzer.normalize("مستشفى")).isEqualTo("مستشفي");
+    }
+
+    @Test
+    void normalizeFoldsArabicIndicDigitsAndLatinAccents() {
+        assertThat(TextAnalyzer.normalize("٢٠٢٤ ۳")).isEqualTo("2024 3");
+        assertThat(TextAnalyzer.normalize("Café ÉTÉ")).isEqualTo("cafe ete");
+    }
+
+    @Test
+    void tokensSplitOnNonWordCharacters() {
+        assertThat(TextAnalyzer.tokens("خدمة-صحية, Tunis!")).containsExactly("خدمه", "صحيه", "tunis");
+        assertThat(TextAnalyzer.tokens(null)).isEmpty();
+    }
+
+    @Test
+    void termsDropStopWordsAndMatchInflectedForms() {
+        assertThat(TextAnalyzer.terms("في المدرسة")).isEqualTo(TextAnalyzer.terms("مدرسة"));
+        assertThat(TextAnalyzer.terms("خدمات")).isEqualTo(TextAnalyzer.terms("الخدمة"));
+        assertThat(TextAnalyzer.terms("والمستشفى")).isEqualTo(TextAnalyzer.terms("مستشفى"));
+        assertThat(TextAnalyzer.terms("the schools of Tunis")).containsExactly("school", "tuni");
+    }
+
+    @Test
+    void stemKeepsAtLeastAThreeLetterRoot() {
+        assertThat(TextAnalyzer.stem("بيت")).isEqualTo("بيت");
+        assertThat(TextAnalyzer.stem("class")).isEqualTo("class");
+        assertThat(TextAnalyzer.stem("bus")).isEqualTo("bus");
+    }
+}
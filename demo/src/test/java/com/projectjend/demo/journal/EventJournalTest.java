@@ -0,0 +1,161 @@
+package com.projectjend.demo.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventJournalTest {
+
+    // [int length][long sequence][byte type][payload][int crc32]
+    private static final int OVERHEAD = Integer.BYTES + Long.BYTES + 1 + Integer.BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedEntriesAfterReopen() {
+        EventJournal journal = new EventJournal(dir, 4096, false);
+        journal.open(0);
+        journal.append(JournalEntry.Type.REVIEW, bytes("first"));
+        journal.append(JournalEntry.Type.VOTE, bytes("second"));
+        journal.close();
+
+        EventJournal reopened = new EventJournal(dir, 4096, false);
+        reopened.open(0);
+        List<JournalEntry> replayed = replay(reopened, 0);
+
+        assertThat(replayed).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+        assertThat(replayed).extracting(JournalEntry::type)
+            .containsExactly(JournalEntry.Type.REVIEW, JournalEntry.Type.VOTE);
+        assertThat(new String(replayed.get(1).payload(), StandardCharsets.UTF_8)).isEqualTo("second");
+        assertThat(reopened.append(JournalEntry.Type.VOTE, bytes("third")).sequence()).isEqualTo(3);
+        reopened.close();
+    }
+
+    @Test
+    void replayStartsAfterTheCheckpoint() {
+        EventJournal journal = new EventJournal(dir, 4096, false);
+        journal.open(0);
+        for (int i = 0; i < 5; i++) {
+            journal.append(JournalEntry.Type.VOTE, bytes("vote-" + i));
+        }
+        journal.close();
+
+        EventJournal reopened = new EventJournal(dir, 4096, false);
+        reopened.open(3);
+
+        assertThat(replay(reopened, 3)).extracting(JournalEntry::sequence).containsExactly(4L, 5L);
+        reopened.close();
+    }
+
+    @Test
+    void cutsOffACorruptTailOnOpen() throws IOException {
+        EventJournal journal = new EventJournal(dir, 4096, false);
+        journal.open(0);
+        journal.append(JournalEntry.Type.REVIEW, bytes("aaaa"));
+        journal.append(JournalEntry.Type.REVIEW, bytes("bbbb"));
+        journal.append(JournalEntry.Type.REVIEW, bytes("cccc"));
+        journal.close();
+
+        // Flip a payload byte of the third record so its checksum no longer matches
+        int thirdPayload = 2 * (OVERHEAD + 4) + Integer.BYTES + Long.BYTES + 1;
+        try (FileChannel file = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[] {'x'}), thirdPayload);
+        }
+
+        EventJournal reopened = new EventJournal(dir, 4096, false);
+        reopened.open(0);
+        assertThat(replay(reopened, 0)).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+
+        // The torn record is overwritten by the next append
+        assertThat(reopened.append(JournalEntry.Type.REVIEW, bytes("dddd")).sequence()).isEqualTo(3);
+        List<JournalEntry> replayed = replay(reopened, 0);
+        assertThat(replayed).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(new String(replayed.get(2).payload(), StandardCharsets.UTF_8)).isEqualTo("dddd");
+        reopened.close();
+    }
+
+    @Test
+    void rollsToANewSegmentWhenTheCurrentOneIsFull() throws IOException {
+        // Room for two records of this size per segment
+        int segmentSize = 2 * (OVERHEAD + 40) + 20;
+        EventJournal journal = new EventJournal(dir, segmentSize, false);
+        journal.open(0);
+        for (int i = 0; i < 5; i++) {
+            journal.append(JournalEntry.Type.VOTE, new byte[40]);
+        }
+
+        assertThat(segments()).extracting(file -> file.getFileName().toString()).containsExactly(
+            "00000000000000000001.seg", "00000000000000000003.seg", "00000000000000000005.seg");
+        assertThat(replay(journal, 0)).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L, 4L, 5L);
+        journal.close();
+    }
+
+    @Test
+    void compactionDeletesOnlyFullyAppliedSegments() throws IOException {
+        int segmentSize = 2 * (OVERHEAD + 40) + 20;
+        EventJournal journal = new EventJournal(dir, segmentSize, false);
+        journal.open(0);
+        for (int i = 0; i < 5; i++) {
+            journal.append(JournalEntry.Type.VOTE, new byte[40]);
+        }
+
+        journal.compact(3);
+        assertThat(segments()).hasSize(2);
+        assertThat(replay(journal, 3)).extracting(JournalEntry::sequence).containsExactly(4L, 5L);
+
+        // The segment being written survives even when everything is applied
+        journal.compact(5);
+        assertThat(segments()).extracting(file -> file.getFileName().toString())
+            .containsExactly("00000000000000000005.seg");
+        journal.close();
+    }
+
+    @Test
+    void continuesAfterTheCheckpointWhenSegmentsWereCompactedAway() {
+        EventJournal journal = new EventJournal(dir, 4096, false);
+        journal.open(41);
+
+        assertThat(journal.append(JournalEntry.Type.VOTE, bytes("next")).sequence()).isEqualTo(42);
+        journal.close();
+    }
+
+    @Test
+    void rejectsAnEntryLargerThanASegment() {
+        EventJournal journal = new EventJournal(dir, 128, false);
+        journal.open(0);
+
+        assertThatThrownBy(() -> journal.append(JournalEntry.Type.REVIEW, new byte[200]))
+            .isInstanceOf(IllegalArgumentException.class);
+        journal.close();
+    }
+
+    private static List<JournalEntry> replay(EventJournal journal, long applied) {
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(applied, entries::add);
+        return entries;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
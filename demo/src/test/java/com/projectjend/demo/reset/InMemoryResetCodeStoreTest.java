@@ -0,0 +1,71 @@
+package com.projectjend.demo.reset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryResetCodeStoreTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Test
+    void acceptsACodeUntilItIsConsumedOnce() {
+        InMemoryResetCodeStore store = new InMemoryResetCodeStore(HOUR_MS, 1000);
+        store.put("a@example.com", "123456");
+
+        assertThat(store.matches("a@example.com", "123456")).isTrue();
+        assertThat(store.consume("a@example.com", "123456")).isTrue();
+        assertThat(store.consume("a@example.com", "123456")).isFalse();
+        assertThat(store.matches("a@example.com", "123456")).isFalse();
+    }
+
+    @Test
+    void aNewCodeReplacesTheOutstandingOne() {
+        InMemoryResetCodeStore store = new InMemoryResetCodeStore(HOUR_MS, 1000);
+        store.put("a@example.com", "111111");
+        store.put("a@example.com", "222222");
+
+        assertThat(store.matches("a@example.com", "111111")).isFalse();
+        assertThat(store.consume("a@example.com", "222222")).isTrue();
+    }
+
+    @Test
+    void refusesWrongCodesOtherEmailsAndNulls() {
+        InMemoryResetCodeStore store = new InMemoryResetCodeStore(HOUR_MS, 1000);
+        store.put("a@example.com", "123456");
+
+        assertThat(store.matches("a@example.com", "654321")).isFalse();
+        assertThat(store.matches("b@example.com", "123456")).isFalse();
+        assertThat(store.matches(null, "123456")).isFalse();
+        assertThat(store.consume("a@example.com", null)).isFalse();
+        assertThat(store.matches("a@example.com", "123456")).isTrue();
+    }
+
+    @Test
+    void refusesACodePastItsDeadlineEvenBeforeTheTick() throws InterruptedException {
+        InMemoryResetCodeStore store = new InMemoryResetCodeStore(20, 1000);
+        store.put("a@example.com", "123456");
+
+        Thread.sleep(50);
+
+        assertThat(store.matches("a@example.com", "123456")).isFalse();
+        assertThat(store.consume("a@example.com", "123456")).isFalse();
+    }
+
+    @Test
+    void ticksKeepLiveCodesAcrossFullTurnsOfTheWheel() {
+        // An hour at one tick per second is seven turns of the 512-slot wheel and then some
+        InMemoryResetCodeStore store = new InMemoryResetCodeStore(HOUR_MS, 1000);
+        store.put("a@example.com", "111111");
+        store.put("b@example.com", "222222");
+        store.put("a@example.com", "333333");
+
+        for (int i = 0; i < 2 * 512; i++) {
+            store.tick();
+        }
+
+        assertThat(store.matches("a@example.com", "333333")).isTrue();
+        assertThat(store.matches("a@example.com", "111111")).isFalse();
+        assertThat(store.matches("b@example.com", "222222")).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.projectjend.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsAFullBurstThenRefuses() {
+        TokenBucket bucket = new TokenBucket(SECOND, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isTrue();
+        }
+        assertThat(bucket.tryAcquire(0)).isFalse();
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        TokenBucket bucket = new TokenBucket(SECOND, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertThat(bucket.tryAcquire(SECOND / 2)).isFalse();
+        assertThat(bucket.tryAcquire(SECOND)).isTrue();
+        assertThat(bucket.tryAcquire(SECOND)).isFalse();
+        assertThat(bucket.tryAcquire(3 * SECOND)).isTrue();
+        assertThat(bucket.tryAcquire(3 * SECOND)).isTrue();
+        assertThat(bucket.tryAcquire(3 * SECOND)).isFalse();
+    }
+
+    @Test
+    void idleTimeDoesNotGrowTheBurstBeyondItsSize() {
+        TokenBucket bucket = new TokenBucket(SECOND, 2, 0);
+        long later = 100 * SECOND;
+
+        assertThat(bucket.tryAcquire(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isFalse();
+    }
+
+    @Test
+    void isFullOnlyOnceEveryPermitHasRefilled() {
+        TokenBucket bucket = new TokenBucket(SECOND, 2, 0);
+        assertThat(bucket.isFull(0)).isTrue();
+
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.isFull(SECOND)).isFalse();
+        assertThat(bucket.isFull(2 * SECOND)).isTrue();
+    }
+}
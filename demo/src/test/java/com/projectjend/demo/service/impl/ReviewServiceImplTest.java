@@ -0,0 +1,42 @@
+package com.projectjend.demo.service.impl;
+
+import com.projectjend.demo.dto.ReviewDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewServiceImplTest {
+
+    @Test
+    void onlyTheUniqueReviewConstraintMeansAlreadyReviewed() {
+        assertThat(ReviewServiceImpl.isDuplicateReview(violation("UK_REVIEWS_SERVICE_CLIENT", "duplicate key"))).isTrue();
+        assertThat(ReviewServiceImpl.isDuplicateReview(violation(null,
+            "duplicate key value violates unique constraint \"uk_reviews_service_client\""))).isTrue();
+
+        assertThat(ReviewServiceImpl.isDuplicateReview(violation(null,
+            "null value in column \"rating\" violates not-null constraint"))).isFalse();
+        assertThat(ReviewServiceImpl.isDuplicateReview(violation("fk_reviews_service_proposal", "foreign key"))).isFalse();
+    }
+
+    @Test
+    void aReviewWithoutARatingIsInvalid() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        ReviewDTO review = new ReviewDTO("a@example.com", "provider", 1L, null, null, null, "great");
+
+        assertThat(validator.validate(review))
+            .extracting(violation -> violation.getPropertyPath().toString())
+            .containsExactly("rating");
+    }
+
+    private static DataIntegrityViolationException violation(String constraint, String message) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("could not execute statement", new SQLException(message), constraint));
+    }
+}
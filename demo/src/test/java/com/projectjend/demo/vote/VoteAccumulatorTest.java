@@ -0,0 +1,110 @@
+package com.projectjend.demo.vote;
+
+import com.projectjend.demo.dto.ServiceCard;
+import com.projectjend.demo.event.CatalogChangedEvent;
+import com.projectjend.demo.index.CatalogIndexer;
+import com.projectjend.demo.repository.ServiceProposalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VoteAccumulatorTest {
+
+    private final ServiceProposalRepository repository = mock(ServiceProposalRepository.class);
+    private final VoteLedger ledger = mock(VoteLedger.class);
+    private final CatalogIndexer catalogIndexer = mock(CatalogIndexer.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private VoteAccumulator accumulator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(catalogIndexer.card(1L)).thenReturn(card(1L, 10));
+        when(catalogIndexer.card(2L)).thenReturn(card(2L, 5));
+        accumulator = new VoteAccumulator(repository, ledger, catalogIndexer, events,
+            mock(PlatformTransactionManager.class), VoteAccumulator.Durability.BATCHED, false,
+            mock(ObjectProvider.class));
+    }
+
+    @Test
+    void flushWritesEveryDeltaAndPublishesOneEvent() {
+        accumulator.vote(1L, 100L);
+        accumulator.vote(1L, 101L);
+        accumulator.vote(2L, 102L);
+        assertThat(accumulator.count(1L)).isEqualTo(12);
+        verify(repository, never()).addVotes(anyLong(), anyInt());
+
+        accumulator.flush();
+
+        verify(repository).addVotes(1L, 2);
+        verify(repository).addVotes(2L, 1);
+        ArgumentCaptor<CatalogChangedEvent> published = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(events, times(1)).publishEvent(published.capture());
+        assertThat(published.getValue().serviceIds()).containsExactly(1L, 2L);
+        // Nothing pending any more: the count is whatever the index holds
+        assertThat(accumulator.count(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void emptyFlushTouchesNothing() {
+        accumulator.flush();
+
+        verify(repository, never()).addVotes(anyLong(), anyInt());
+        verify(events, never()).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    void failedFlushKeepsTheVotesForTheNextRun() {
+        when(repository.addVotes(1L, 2)).thenThrow(new QueryTimeoutException("timeout")).thenReturn(1);
+        accumulator.vote(1L, 100L);
+        accumulator.vote(1L, 101L);
+
+        accumulator.flush();
+        assertThat(accumulator.count(1L)).isEqualTo(12);
+
+        accumulator.flush();
+        verify(repository, times(2)).addVotes(1L, 2);
+        verify(events, times(1)).publishEvent(any(CatalogChangedEvent.class));
+        assertThat(accumulator.count(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void countsVotesWhileTheirFlushIsInFlight() {
+        List<Long> seenDuringFlush = new ArrayList<>();
+        when(repository.addVotes(1L, 2)).thenAnswer(invocation -> {
+            seenDuringFlush.add(accumulator.count(1L));
+            // A vote arriving mid-flush waits for the next one
+            accumulator.vote(1L, 103L);
+            seenDuringFlush.add(accumulator.count(1L));
+            return 1;
+        });
+        accumulator.vote(1L, 100L);
+        accumulator.vote(1L, 101L);
+
+        accumulator.flush();
+
+        assertThat(seenDuringFlush).containsExactly(12L, 13L);
+        assertThat(accumulator.count(1L)).isEqualTo(11);
+    }
+
+    private static ServiceCard card(Long id, int votes) {
+        return new ServiceCard(id, "service " + id, null, null, null, null, null, null, votes, null, 0);
+    }
+}